@@ -0,0 +1,35 @@
+package com.nola.raj.user.benchmark;
+
+import com.nola.raj.user.service.dto.UsersDTO;
+import com.nola.raj.user.web.rest.util.PaginationUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the Link and X-Total-Count headers of a page in the middle of a listing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class PaginationUtilBenchmark {
+
+    private Page<UsersDTO> page;
+
+    @Setup
+    public void setUp() {
+        page = new PageImpl<>(UsersFixtures.usersDTOs(20), PageRequest.of(5, 20), 10_000);
+    }
+
+    @Benchmark
+    public HttpHeaders generatePaginationHttpHeaders() {
+        return PaginationUtil.generatePaginationHttpHeaders(page, "/api/users");
+    }
+}
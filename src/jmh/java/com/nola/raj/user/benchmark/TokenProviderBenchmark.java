@@ -0,0 +1,83 @@
+package com.nola.raj.user.benchmark;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nola.raj.user.config.ApplicationProperties;
+import com.nola.raj.user.security.AuthoritiesConstants;
+import com.nola.raj.user.security.jwt.JWKSKeyResolver;
+import com.nola.raj.user.security.jwt.JWTRejectionLogger;
+import com.nola.raj.user.security.jwt.TokenProvider;
+import io.github.jhipster.config.JHipsterProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the validation of a JWT, as done by JWTFilter on each request, with and without the verified-token cache.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    private static final String BASE64_SECRET = "NGNiZDI4ODk5NWY4ZmM2ODIyMzU2MmQyZTI3YTU0YzNjNTQ5MGUyMjllN2IzZjJhZDRiYWU0ODRjZGNiNjM5N2ZjNThkZDE2MDcxZWFlMzcxY2I2YWJlNDZhYjdkYTMwNDg5ODFjMTkxMjEzZGY0ZDMxY2JjMWYyMzUxMTkzOGY=";
+
+    private TokenProvider tokenProvider;
+
+    private TokenProvider cachingTokenProvider;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Cache.Region disabled = new ApplicationProperties.Cache.Region();
+        disabled.setEnabled(false);
+        applicationProperties.getCache().getRegions().put(TokenProvider.VERIFIED_TOKENS_CACHE, disabled);
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties,
+            new JWKSKeyResolver(applicationProperties, new ObjectMapper()),
+            new JWTRejectionLogger(applicationProperties, new MetricRegistry()));
+        tokenProvider.init();
+        cachingTokenProvider = new TokenProvider(jHipsterProperties, new ApplicationProperties(),
+            new JWKSKeyResolver(new ApplicationProperties(), new ObjectMapper()),
+            new JWTRejectionLogger(new ApplicationProperties(), new MetricRegistry()));
+        cachingTokenProvider.init();
+        Authentication authentication = new UsernamePasswordAuthenticationToken("user", "user",
+            Arrays.asList(new SimpleGrantedAuthority(AuthoritiesConstants.USER), new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN)));
+        token = tokenProvider.createToken(authentication, false);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Authentication getAuthentication() {
+        return tokenProvider.getAuthentication(token);
+    }
+
+    @Benchmark
+    public Authentication validateAndGetAuthentication() {
+        return tokenProvider.validateToken(token) ? tokenProvider.getAuthentication(token) : null;
+    }
+
+    @Benchmark
+    public Authentication getValidAuthentication() {
+        return tokenProvider.getValidAuthentication(token).orElse(null);
+    }
+
+    @Benchmark
+    public Authentication getValidAuthenticationCached() {
+        return cachingTokenProvider.getValidAuthentication(token).orElse(null);
+    }
+}
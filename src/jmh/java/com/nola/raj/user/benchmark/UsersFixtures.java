@@ -0,0 +1,41 @@
+package com.nola.raj.user.benchmark;
+
+import com.nola.raj.user.domain.Country;
+import com.nola.raj.user.domain.Users;
+import com.nola.raj.user.domain.enumeration.Gender;
+import com.nola.raj.user.service.dto.UsersDTO;
+import com.nola.raj.user.service.mapper.UsersMapperImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Realistic Users shared by the benchmarks.
+ */
+final class UsersFixtures {
+
+    private static final String[] COUNTRIES = {"FR", "IN", "US", "DE", "BR"};
+
+    private UsersFixtures() {
+    }
+
+    static Users users(long id) {
+        Users users = new Users()
+            .name("User " + id)
+            .age(18 + (int) (id % 60))
+            .gender(Gender.values()[(int) (id % Gender.values().length)])
+            .email("user" + id + "@example.com")
+            .country(Country.of(COUNTRIES[(int) (id % COUNTRIES.length)]));
+        users.setId(id);
+        return users;
+    }
+
+    static List<UsersDTO> usersDTOs(int size) {
+        UsersMapperImpl usersMapper = new UsersMapperImpl();
+        List<UsersDTO> usersDTOs = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            usersDTOs.add(usersMapper.toDto(users(id)));
+        }
+        return usersDTOs;
+    }
+}
@@ -0,0 +1,49 @@
+package com.nola.raj.user.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import com.nola.raj.user.service.dto.UsersDTO;
+import org.openjdk.jmh.annotations.*;
+import org.zalando.problem.ProblemModule;
+import org.zalando.problem.violations.ConstraintViolationProblemModule;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the JSON serialization of a page of UsersDTO, with the modules registered by JacksonConfiguration.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class UsersJsonBenchmark {
+
+    @Param({"20", "1000"})
+    private int size;
+
+    private ObjectWriter writer;
+
+    private List<UsersDTO> usersDTOs;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModules(new JavaTimeModule(), new Jdk8Module(),
+            new Hibernate5Module(), new AfterburnerModule(), new ProblemModule(), new ConstraintViolationProblemModule());
+        writer = objectMapper.writerFor(new TypeReference<List<UsersDTO>>() { });
+        usersDTOs = UsersFixtures.usersDTOs(size);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(usersDTOs);
+    }
+}
@@ -0,0 +1,43 @@
+package com.nola.raj.user.benchmark;
+
+import com.nola.raj.user.domain.Users;
+import com.nola.raj.user.service.dto.UsersDTO;
+import com.nola.raj.user.service.mapper.UsersMapper;
+import com.nola.raj.user.service.mapper.UsersMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the MapStruct conversions between Users and UsersDTO.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(3)
+@State(Scope.Benchmark)
+public class UsersMapperBenchmark {
+
+    private final UsersMapper usersMapper = new UsersMapperImpl();
+
+    private Users users;
+
+    private UsersDTO usersDTO;
+
+    @Setup
+    public void setUp() {
+        users = UsersFixtures.users(42L);
+        usersDTO = usersMapper.toDto(users);
+    }
+
+    @Benchmark
+    public UsersDTO toDto() {
+        return usersMapper.toDto(users);
+    }
+
+    @Benchmark
+    public Users toEntity() {
+        return usersMapper.toEntity(usersDTO);
+    }
+}
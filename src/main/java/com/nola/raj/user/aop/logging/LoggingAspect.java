@@ -1,5 +1,6 @@
 package com.nola.raj.user.aop.logging;
 
+import com.nola.raj.user.config.ApplicationProperties;
 import io.github.jhipster.config.JHipsterConstants;
 
 import org.aspectj.lang.JoinPoint;
@@ -11,23 +12,52 @@ import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
 
-import java.util.Arrays;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
- * By default, it only runs with the "dev" profile.
+ * It only exists when "application.tracing.enabled" is true, which is the case with the "dev" profile, and tracing
+ * can then be switched off and on at runtime. Arguments and results are rendered with a bounded length: at most
+ * "application.tracing.max-elements" elements of a collection are rendered, so a large list is never stringified.
  */
 @Aspect
 public class LoggingAspect {
 
+    private static final String ELLIPSIS = "...";
+
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final int maxLength;
+
+    private final int maxElements;
+
+    private volatile boolean tracing = true;
+
+    public LoggingAspect(Environment env, ApplicationProperties applicationProperties) {
         this.env = env;
+        this.maxLength = applicationProperties.getTracing().getMaxLength();
+        this.maxElements = applicationProperties.getTracing().getMaxElements();
+    }
+
+    public boolean isTracing() {
+        return tracing;
+    }
+
+    /**
+     * Switch the logging of method entries and exits off or on. Exceptions are always logged.
+     */
+    public void setTracing(boolean tracing) {
+        this.tracing = tracing;
     }
 
     /**
@@ -77,22 +107,99 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!tracing) {
+            return joinPoint.proceed();
+        }
         if (log.isDebugEnabled()) {
             log.debug("Enter: {}.{}() with argument[s] = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+                joinPoint.getSignature().getName(), render(joinPoint.getArgs()));
         }
         try {
             Object result = joinPoint.proceed();
             if (log.isDebugEnabled()) {
                 log.debug("Exit: {}.{}() with result = {}", joinPoint.getSignature().getDeclaringTypeName(),
-                    joinPoint.getSignature().getName(), result);
+                    joinPoint.getSignature().getName(), render(result));
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}.{}()", Arrays.toString(joinPoint.getArgs()),
+            log.error("Illegal argument: {} in {}.{}()", render(joinPoint.getArgs()),
                 joinPoint.getSignature().getDeclaringTypeName(), joinPoint.getSignature().getName());
 
             throw e;
         }
     }
+
+    /**
+     * Render a value for the logs, in at most "max-length" characters.
+     */
+    String render(Object value) {
+        StringBuilder builder = new StringBuilder();
+        append(builder, value);
+        if (builder.length() > maxLength) {
+            builder.setLength(maxLength);
+            builder.append(ELLIPSIS);
+        }
+        return builder.toString();
+    }
+
+    private void append(StringBuilder builder, Object value) {
+        if (builder.length() > maxLength) {
+            return;
+        }
+        if (value == null) {
+            builder.append("null");
+        } else if (value instanceof Collection) {
+            appendElements(builder, ((Collection<?>) value).iterator(), ((Collection<?>) value).size());
+        } else if (value instanceof Map) {
+            appendElements(builder, ((Map<?, ?>) value).entrySet().iterator(), ((Map<?, ?>) value).size());
+        } else if (value instanceof Object[]) {
+            Object[] array = (Object[]) value;
+            builder.append('[');
+            for (int i = 0; i < array.length && i < maxElements && builder.length() <= maxLength; i++) {
+                if (i > 0) {
+                    builder.append(", ");
+                }
+                append(builder, array[i]);
+            }
+            appendRemaining(builder, array.length);
+        } else if (value.getClass().isArray()) {
+            builder.append(value.getClass().getComponentType().getName()).append('[').append(Array.getLength(value)).append(']');
+        } else if (value instanceof Map.Entry) {
+            append(builder, ((Map.Entry<?, ?>) value).getKey());
+            builder.append('=');
+            append(builder, ((Map.Entry<?, ?>) value).getValue());
+        } else if (value instanceof Optional) {
+            builder.append("Optional[");
+            append(builder, ((Optional<?>) value).orElse(null));
+            builder.append(']');
+        } else if (value instanceof HttpEntity) {
+            builder.append('<');
+            if (value instanceof ResponseEntity) {
+                builder.append(((ResponseEntity<?>) value).getStatusCodeValue()).append(',');
+            }
+            append(builder, ((HttpEntity<?>) value).getBody());
+            builder.append('>');
+        } else {
+            String string = value.toString();
+            builder.append(string, 0, Math.min(string.length(), maxLength - builder.length() + 1));
+        }
+    }
+
+    private void appendElements(StringBuilder builder, Iterator<?> elements, int size) {
+        builder.append('[');
+        for (int i = 0; i < maxElements && elements.hasNext() && builder.length() <= maxLength; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            append(builder, elements.next());
+        }
+        appendRemaining(builder, size);
+    }
+
+    private void appendRemaining(StringBuilder builder, int size) {
+        if (size > maxElements) {
+            builder.append(", ").append(ELLIPSIS).append(" (").append(size).append(" elements)");
+        }
+        builder.append(']');
+    }
 }
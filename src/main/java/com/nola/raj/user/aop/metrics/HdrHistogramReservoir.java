@@ -0,0 +1,142 @@
+package com.nola.raj.user.aop.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A Dropwizard reservoir recording durations, in nanoseconds, into an HdrHistogram.
+ * <p>
+ * Recording is wait-free and does not allocate, unlike the default exponentially decaying reservoir which takes a
+ * lock to rescale. Values are kept with 2 significant digits between 100 nanoseconds and 1 minute, longer durations
+ * being recorded as 1 minute, so percentiles up to p999 are exact to 1%. Snapshots cover the recordings of the
+ * current window and of the previous one, so they reflect the latency of the last one to two windows.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    private static final long LOWEST_DISCERNIBLE_VALUE = 100;
+
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toNanos(1);
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder recorder = new Recorder(LOWEST_DISCERNIBLE_VALUE, HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+
+    private final long windowNanos;
+
+    private Histogram intervalHistogram;
+
+    private Histogram currentWindow = newHistogram();
+
+    private Histogram previousWindow = newHistogram();
+
+    private long currentWindowStart = System.nanoTime();
+
+    public HdrHistogramReservoir(long window, TimeUnit unit) {
+        this.windowNanos = unit.toNanos(window);
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        recorder.recordValue(Math.min(Math.max(value, 0), HIGHEST_TRACKABLE_VALUE));
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        intervalHistogram = recorder.getIntervalHistogram(intervalHistogram);
+        long now = System.nanoTime();
+        if (now - currentWindowStart >= windowNanos) {
+            Histogram expired = previousWindow;
+            previousWindow = currentWindow;
+            currentWindow = expired;
+            currentWindow.reset();
+            currentWindowStart = now;
+        }
+        currentWindow.add(intervalHistogram);
+        Histogram histogram = previousWindow.copy();
+        histogram.add(currentWindow);
+        return new HdrHistogramSnapshot(histogram);
+    }
+
+    private static Histogram newHistogram() {
+        return new Histogram(LOWEST_DISCERNIBLE_VALUE, HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * A snapshot of a histogram. As a histogram keeps no samples, {@link #getValues()} expands its buckets, and is
+     * only meant for occasional dumps: reporters only read the percentiles.
+     */
+    static final class HdrHistogramSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        HdrHistogramSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100);
+        }
+
+        @Override
+        public long[] getValues() {
+            long[] values = new long[(int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount())];
+            int i = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                long highestEquivalentValue = histogram.highestEquivalentValue(value.getValueIteratedTo());
+                for (long count = 0; count < value.getCountAtValueIteratedTo() && i < values.length; count++) {
+                    values[i++] = highestEquivalentValue;
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, histogram.getTotalCount());
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.nola.raj.user.aop.metrics;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspect recording the latency of the methods of service and repository Spring components.
+ * <p>
+ * Each method gets a Dropwizard {@link Timer} named after its class (the repository interface for Spring Data
+ * repositories) and its name, backed by an {@link HdrHistogramReservoir}, whose percentiles are reported through JMX
+ * and the logs. It also gets a Micrometer timer "method.latency", tagged with the class and the method, publishing its
+ * p50, p99 and p999 over the same window, which are scraped on the Prometheus endpoint. Timers are resolved once per
+ * method and class, after which timing a call is a map lookup and two recordings.
+ */
+@Aspect
+public class LatencyAspect {
+
+    public static final String METER_NAME = "method.latency";
+
+    private static final double[] PERCENTILES = {0.5, 0.99, 0.999};
+
+    private final MetricRegistry metricRegistry;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final long windowSeconds;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, MethodTimers>> timers = new ConcurrentHashMap<>();
+
+    /**
+     * @param meterRegistry resolved when the first method is timed, as the aspect is created before the registry
+     */
+    public LatencyAspect(MetricRegistry metricRegistry, ObjectProvider<MeterRegistry> meterRegistry, long windowSeconds) {
+        this.metricRegistry = metricRegistry;
+        this.meterRegistry = meterRegistry;
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * Pointcut that matches all services of the application.
+     */
+    @Pointcut("within(com.nola.raj.user.service..*) && within(@org.springframework.stereotype.Service *)")
+    public void servicePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring Data repositories, whose implementation is outside of the application.
+     */
+    @Pointcut("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public void repositoryPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that records the latency of a method, whether it returns or throws.
+     *
+     * @param joinPoint join point for advice
+     * @return result
+     * @throws Throwable the exception of the method
+     */
+    @Around("servicePointcut() || repositoryPointcut()")
+    public Object recordLatency(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodTimers methodTimers = timers(joinPoint.getTarget(), ((MethodSignature) joinPoint.getSignature()).getMethod());
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            methodTimers.record(System.nanoTime() - start);
+        }
+    }
+
+    private MethodTimers timers(Object target, Method method) {
+        Class<?> targetClass = target.getClass();
+        ConcurrentMap<Method, MethodTimers> timersOfClass = timers.get(targetClass);
+        if (timersOfClass == null) {
+            timersOfClass = timers.computeIfAbsent(targetClass, key -> new ConcurrentHashMap<>());
+        }
+        MethodTimers methodTimers = timersOfClass.get(method);
+        if (methodTimers == null) {
+            methodTimers = timersOfClass.computeIfAbsent(method, key -> createTimers(metricClass(target), method));
+        }
+        return methodTimers;
+    }
+
+    private MethodTimers createTimers(Class<?> metricClass, Method method) {
+        Timer timer = metricRegistry.timer(MetricRegistry.name(metricClass, method.getName()),
+            () -> new Timer(new HdrHistogramReservoir(windowSeconds, TimeUnit.SECONDS)));
+        io.micrometer.core.instrument.Timer meter = io.micrometer.core.instrument.Timer.builder(METER_NAME)
+            .tag("class", metricClass.getName())
+            .tag("method", method.getName())
+            .publishPercentiles(PERCENTILES)
+            .distributionStatisticExpiry(Duration.ofSeconds(windowSeconds))
+            .register(meterRegistry.getObject());
+        return new MethodTimers(timer, meter);
+    }
+
+    /**
+     * The class naming the metrics of a target: the application interface of a Spring Data repository, whose class
+     * is a proxy, or the class of a service.
+     */
+    private static Class<?> metricClass(Object target) {
+        Class<?> targetClass = AopUtils.getTargetClass(target);
+        if (target instanceof Repository) {
+            for (Class<?> candidate : target.getClass().getInterfaces()) {
+                if (Repository.class.isAssignableFrom(candidate) && !candidate.getName().startsWith("org.springframework.")) {
+                    return candidate;
+                }
+            }
+        }
+        return targetClass;
+    }
+
+    /**
+     * The timers of a method in both registries.
+     */
+    private static final class MethodTimers {
+
+        private final Timer timer;
+
+        private final io.micrometer.core.instrument.Timer meter;
+
+        private MethodTimers(Timer timer, io.micrometer.core.instrument.Timer meter) {
+            this.timer = timer;
+            this.meter = meter;
+        }
+
+        private void record(long nanos) {
+            timer.update(nanos, TimeUnit.NANOSECONDS);
+            meter.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
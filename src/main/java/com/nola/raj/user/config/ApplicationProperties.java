@@ -2,6 +2,12 @@ package com.nola.raj.user.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Properties specific to User Svc.
  * <p>
@@ -11,4 +17,833 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
 
+    private final Cache cache = new Cache();
+
+    private final Security security = new Security();
+
+    private final Tracing tracing = new Tracing();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Datasource datasource = new Datasource();
+
+    private final Async async = new Async();
+
+    private final Audit audit = new Audit();
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public static class Metrics {
+
+        private final Latency latency = new Latency();
+
+        public Latency getLatency() {
+            return latency;
+        }
+
+        /**
+         * Latency histograms of the service and repository methods, recorded by the LatencyAspect.
+         */
+        public static class Latency {
+
+            private boolean enabled = true;
+
+            /**
+             * The percentiles of a histogram cover the latencies of the last one to two windows.
+             */
+            private long windowSeconds = 60;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getWindowSeconds() {
+                return windowSeconds;
+            }
+
+            public void setWindowSeconds(long windowSeconds) {
+                this.windowSeconds = windowSeconds;
+            }
+        }
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    /**
+     * The bounded executor of the UsersAsyncService, on which the database calls of the REST endpoints run instead of
+     * the servlet threads. Sized like the connection pool, as its threads mostly wait for a connection or the database.
+     */
+    public static class Async {
+
+        private int corePoolSize = 10;
+
+        private int maxPoolSize = 10;
+
+        /**
+         * Calls queued beyond this are rejected with a 503 (Service Unavailable).
+         */
+        private int queueCapacity = 500;
+
+        /**
+         * Time a streamed response, such as the users export, may take before it is aborted.
+         */
+        private long streamTimeoutMs = 600000;
+
+        /**
+         * Exports running at once, on an executor of their own so that slow clients cannot starve the other users
+         * endpoints. Exports beyond this are rejected with a 503 (Service Unavailable).
+         */
+        private int exportPoolSize = 2;
+
+        public int getCorePoolSize() {
+            return corePoolSize;
+        }
+
+        public void setCorePoolSize(int corePoolSize) {
+            this.corePoolSize = corePoolSize;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public long getStreamTimeoutMs() {
+            return streamTimeoutMs;
+        }
+
+        public void setStreamTimeoutMs(long streamTimeoutMs) {
+            this.streamTimeoutMs = streamTimeoutMs;
+        }
+
+        public int getExportPoolSize() {
+            return exportPoolSize;
+        }
+
+        public void setExportPoolSize(int exportPoolSize) {
+            this.exportPoolSize = exportPoolSize;
+        }
+    }
+
+    public Audit getAudit() {
+        return audit;
+    }
+
+    /**
+     * Persistence of the audit events, which are queued and written in JDBC batches by the AuditEventBatchWriter.
+     */
+    public static class Audit {
+
+        /**
+         * What to do with an event when the queue is full.
+         */
+        public enum OverflowPolicy {
+            /**
+             * Drop the new event.
+             */
+            DROP_NEWEST,
+            /**
+             * Drop the oldest queued event to make room for the new one.
+             */
+            DROP_OLDEST,
+            /**
+             * Write the queued events in the thread of the caller, which then waits for the database.
+             */
+            CALLER_RUNS
+        }
+
+        /**
+         * Maximum number of events waiting to be written.
+         */
+        private int queueCapacity = 10000;
+
+        /**
+         * Number of events written per transaction. A flush is triggered as soon as this many events are queued.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Maximum delay between two flushes of the queue.
+         */
+        private long flushIntervalMs = 1000;
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+    }
+
+    public Datasource getDatasource() {
+        return datasource;
+    }
+
+    public static class Datasource {
+
+        private final Pool pool = new Pool();
+
+        private final Saturation saturation = new Saturation();
+
+        private final Routing routing = new Routing();
+
+        public Pool getPool() {
+            return pool;
+        }
+
+        public Saturation getSaturation() {
+            return saturation;
+        }
+
+        public Routing getRouting() {
+            return routing;
+        }
+
+        /**
+         * Routing of the read-only transactions to replicas of the database, by the ReadReplicaRoutingDataSource.
+         */
+        public static class Routing {
+
+            private boolean enabled = false;
+
+            private Balancing balancing = Balancing.ROUND_ROBIN;
+
+            /**
+             * How long a replica which failed to give a connection is skipped, its reads going to the other replicas
+             * or to the primary.
+             */
+            private long retryIntervalMs = 5000;
+
+            private List<Replica> replicas = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public Balancing getBalancing() {
+                return balancing;
+            }
+
+            public void setBalancing(Balancing balancing) {
+                this.balancing = balancing;
+            }
+
+            public long getRetryIntervalMs() {
+                return retryIntervalMs;
+            }
+
+            public void setRetryIntervalMs(long retryIntervalMs) {
+                this.retryIntervalMs = retryIntervalMs;
+            }
+
+            public List<Replica> getReplicas() {
+                return replicas;
+            }
+
+            public void setReplicas(List<Replica> replicas) {
+                this.replicas = replicas;
+            }
+
+            public enum Balancing {
+                ROUND_ROBIN, LEAST_CONNECTIONS
+            }
+
+            /**
+             * A replica, whose pool has the settings of the primary one. The username and password default to the
+             * ones of the primary.
+             */
+            public static class Replica {
+
+                private String url;
+
+                private String username;
+
+                private String password;
+
+                public String getUrl() {
+                    return url;
+                }
+
+                public void setUrl(String url) {
+                    this.url = url;
+                }
+
+                public String getUsername() {
+                    return username;
+                }
+
+                public void setUsername(String username) {
+                    this.username = username;
+                }
+
+                public String getPassword() {
+                    return password;
+                }
+
+                public void setPassword(String password) {
+                    this.password = password;
+                }
+            }
+        }
+
+        /**
+         * Settings of the Hikari pool, applied over the "spring.datasource.hikari" ones by the
+         * HikariPoolTuningPostProcessor.
+         */
+        public static class Pool {
+
+            private boolean enabled = false;
+
+            /**
+             * A fixed size pool (minimum idle = maximum size) avoids opening connections under load.
+             */
+            private int maximumPoolSize = 10;
+
+            private int minimumIdle = 10;
+
+            /**
+             * How long a request waits for a connection before failing.
+             */
+            private long connectionTimeoutMs = 30000;
+
+            private long validationTimeoutMs = 5000;
+
+            private long idleTimeoutMs = 600000;
+
+            /**
+             * Should be a few seconds shorter than any connection time limit of the database or the network.
+             */
+            private long maxLifetimeMs = 1800000;
+
+            /**
+             * Log a connection held for longer than this, 0 to disable.
+             */
+            private long leakDetectionThresholdMs = 0;
+
+            /**
+             * Properties of the JDBC driver, such as the prepared statement cache of PgJDBC.
+             */
+            private Map<String, String> dataSourceProperties = new LinkedHashMap<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaximumPoolSize() {
+                return maximumPoolSize;
+            }
+
+            public void setMaximumPoolSize(int maximumPoolSize) {
+                this.maximumPoolSize = maximumPoolSize;
+            }
+
+            public int getMinimumIdle() {
+                return minimumIdle;
+            }
+
+            public void setMinimumIdle(int minimumIdle) {
+                this.minimumIdle = minimumIdle;
+            }
+
+            public long getConnectionTimeoutMs() {
+                return connectionTimeoutMs;
+            }
+
+            public void setConnectionTimeoutMs(long connectionTimeoutMs) {
+                this.connectionTimeoutMs = connectionTimeoutMs;
+            }
+
+            public long getValidationTimeoutMs() {
+                return validationTimeoutMs;
+            }
+
+            public void setValidationTimeoutMs(long validationTimeoutMs) {
+                this.validationTimeoutMs = validationTimeoutMs;
+            }
+
+            public long getIdleTimeoutMs() {
+                return idleTimeoutMs;
+            }
+
+            public void setIdleTimeoutMs(long idleTimeoutMs) {
+                this.idleTimeoutMs = idleTimeoutMs;
+            }
+
+            public long getMaxLifetimeMs() {
+                return maxLifetimeMs;
+            }
+
+            public void setMaxLifetimeMs(long maxLifetimeMs) {
+                this.maxLifetimeMs = maxLifetimeMs;
+            }
+
+            public long getLeakDetectionThresholdMs() {
+                return leakDetectionThresholdMs;
+            }
+
+            public void setLeakDetectionThresholdMs(long leakDetectionThresholdMs) {
+                this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+            }
+
+            public Map<String, String> getDataSourceProperties() {
+                return dataSourceProperties;
+            }
+
+            public void setDataSourceProperties(Map<String, String> dataSourceProperties) {
+                this.dataSourceProperties = dataSourceProperties;
+            }
+        }
+
+        /**
+         * Thresholds of the HikariPoolHealthIndicator, which reports the pool as saturated before requests time out.
+         */
+        public static class Saturation {
+
+            /**
+             * Ratio of active connections to the maximum pool size.
+             */
+            private double activeRatio = 0.9;
+
+            /**
+             * Number of threads waiting for a connection.
+             */
+            private int pendingThreads = 3;
+
+            /**
+             * 99th percentile of the time spent waiting for a connection.
+             */
+            private long waitP99Ms = 100;
+
+            public double getActiveRatio() {
+                return activeRatio;
+            }
+
+            public void setActiveRatio(double activeRatio) {
+                this.activeRatio = activeRatio;
+            }
+
+            public int getPendingThreads() {
+                return pendingThreads;
+            }
+
+            public void setPendingThreads(int pendingThreads) {
+                this.pendingThreads = pendingThreads;
+            }
+
+            public long getWaitP99Ms() {
+                return waitP99Ms;
+            }
+
+            public void setWaitP99Ms(long waitP99Ms) {
+                this.waitP99Ms = waitP99Ms;
+            }
+        }
+    }
+
+    public Tracing getTracing() {
+        return tracing;
+    }
+
+    /**
+     * Tracing of the calls to repositories, services and REST endpoints by the LoggingAspect.
+     */
+    public static class Tracing {
+
+        /**
+         * Weave the LoggingAspect. When false, the aspect does not exist and costs nothing.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum length of the rendering of the arguments, or of the result, of a call.
+         */
+        private int maxLength = 512;
+
+        /**
+         * Maximum number of elements rendered for a collection, a map or an array.
+         */
+        private int maxElements = 10;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        public void setMaxLength(int maxLength) {
+            this.maxLength = maxLength;
+        }
+
+        public int getMaxElements() {
+            return maxElements;
+        }
+
+        public void setMaxElements(int maxElements) {
+            this.maxElements = maxElements;
+        }
+    }
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public static class Security {
+
+        private final Jwks jwks = new Jwks();
+
+        private final RejectionLog rejectionLog = new RejectionLog();
+
+        private final Revocation revocation = new Revocation();
+
+        private final RateLimit rateLimit = new RateLimit();
+
+        public Jwks getJwks() {
+            return jwks;
+        }
+
+        public RejectionLog getRejectionLog() {
+            return rejectionLog;
+        }
+
+        public Revocation getRevocation() {
+            return revocation;
+        }
+
+        public RateLimit getRateLimit() {
+            return rateLimit;
+        }
+
+        /**
+         * Rate limits of the requests of each user, or of each IP address for requests which are not authenticated.
+         */
+        public static class RateLimit {
+
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of clients tracked per limit, beyond which the least recently seen are forgotten.
+             */
+            private long maxBuckets = 100000;
+
+            /**
+             * Delay after which the bucket of an idle client is forgotten.
+             */
+            private long idleTimeoutSeconds = 600;
+
+            /**
+             * Limits by endpoint, the first one matching a request applies.
+             */
+            private List<Limit> limits = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getMaxBuckets() {
+                return maxBuckets;
+            }
+
+            public void setMaxBuckets(long maxBuckets) {
+                this.maxBuckets = maxBuckets;
+            }
+
+            public long getIdleTimeoutSeconds() {
+                return idleTimeoutSeconds;
+            }
+
+            public void setIdleTimeoutSeconds(long idleTimeoutSeconds) {
+                this.idleTimeoutSeconds = idleTimeoutSeconds;
+            }
+
+            public List<Limit> getLimits() {
+                return limits;
+            }
+
+            public void setLimits(List<Limit> limits) {
+                this.limits = limits;
+            }
+
+            public static class Limit {
+
+                /**
+                 * Ant pattern of the request paths, e.g. /api/**.
+                 */
+                private String pattern;
+
+                /**
+                 * HTTP method of the requests, or any method if empty.
+                 */
+                private String method;
+
+                /**
+                 * Number of requests a client can burst.
+                 */
+                private long capacity = 100;
+
+                private double refillPerSecond = 10;
+
+                public String getPattern() {
+                    return pattern;
+                }
+
+                public void setPattern(String pattern) {
+                    this.pattern = pattern;
+                }
+
+                public String getMethod() {
+                    return method;
+                }
+
+                public void setMethod(String method) {
+                    this.method = method;
+                }
+
+                public long getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(long capacity) {
+                    this.capacity = capacity;
+                }
+
+                public double getRefillPerSecond() {
+                    return refillPerSecond;
+                }
+
+                public void setRefillPerSecond(double refillPerSecond) {
+                    this.refillPerSecond = refillPerSecond;
+                }
+            }
+        }
+
+        /**
+         * Revocation of JWTs by their "jti" claim, checked against a local copy of the revoked_token table.
+         */
+        public static class Revocation {
+
+            /**
+             * Delay between two loads of the tokens revoked since the previous load.
+             */
+            private long refreshIntervalMs = 10000;
+
+            /**
+             * Number of revoked tokens the bloom filter is sized for, before its false positive rate degrades.
+             */
+            private int expectedRevocations = 100000;
+
+            private double falsePositiveRate = 0.01;
+
+            public long getRefreshIntervalMs() {
+                return refreshIntervalMs;
+            }
+
+            public void setRefreshIntervalMs(long refreshIntervalMs) {
+                this.refreshIntervalMs = refreshIntervalMs;
+            }
+
+            public int getExpectedRevocations() {
+                return expectedRevocations;
+            }
+
+            public void setExpectedRevocations(int expectedRevocations) {
+                this.expectedRevocations = expectedRevocations;
+            }
+
+            public double getFalsePositiveRate() {
+                return falsePositiveRate;
+            }
+
+            public void setFalsePositiveRate(double falsePositiveRate) {
+                this.falsePositiveRate = falsePositiveRate;
+            }
+        }
+
+        /**
+         * Logging of rejected JWTs, which is rate-limited so that a burst of invalid tokens does not flood the logs.
+         */
+        public static class RejectionLog {
+
+            /**
+             * Maximum number of rejections logged per second, the others are only counted.
+             */
+            private int maxPerSecond = 10;
+
+            /**
+             * One logged rejection out of this number is logged with its stack trace.
+             */
+            private int sampleRate = 100;
+
+            public int getMaxPerSecond() {
+                return maxPerSecond;
+            }
+
+            public void setMaxPerSecond(int maxPerSecond) {
+                this.maxPerSecond = maxPerSecond;
+            }
+
+            public int getSampleRate() {
+                return sampleRate;
+            }
+
+            public void setSampleRate(int sampleRate) {
+                this.sampleRate = sampleRate;
+            }
+        }
+
+        /**
+         * Public keys accepted for asymmetrically signed JWTs, selected by the "kid" header of the token.
+         */
+        public static class Jwks {
+
+            /**
+             * JWKS file, or directory of JWKS files, holding the public keys. No asymmetric key is accepted if empty.
+             */
+            private String location;
+
+            private long reloadIntervalMs = 30000;
+
+            public String getLocation() {
+                return location;
+            }
+
+            public void setLocation(String location) {
+                this.location = location;
+            }
+
+            public long getReloadIntervalMs() {
+                return reloadIntervalMs;
+            }
+
+            public void setReloadIntervalMs(long reloadIntervalMs) {
+                this.reloadIntervalMs = reloadIntervalMs;
+            }
+        }
+    }
+
+    public static class Cache {
+
+        private final Region defaults = new Region();
+
+        private Map<String, Region> regions = new HashMap<>();
+
+        public Region getDefaults() {
+            return defaults;
+        }
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public void setRegions(Map<String, Region> regions) {
+            this.regions = regions;
+        }
+
+        /**
+         * Settings of the given cache region, or the defaults if the region is not configured.
+         */
+        public Region getRegion(String name) {
+            return regions.getOrDefault(name, defaults);
+        }
+
+        public static class Region {
+
+            private boolean enabled = true;
+
+            private long timeToLiveSeconds = 3600;
+
+            private long maxEntries = 1000;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+        }
+    }
 }
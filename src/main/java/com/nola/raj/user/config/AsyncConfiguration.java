@@ -9,6 +9,7 @@ import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.scheduling.annotation.*;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.scheduling.annotation.SchedulingConfigurer;
@@ -26,8 +27,11 @@ public class AsyncConfiguration implements AsyncConfigurer, SchedulingConfigurer
 
     private final JHipsterProperties jHipsterProperties;
 
-    public AsyncConfiguration(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    public AsyncConfiguration(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -42,6 +46,36 @@ public class AsyncConfiguration implements AsyncConfigurer, SchedulingConfigurer
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
+    /**
+     * Executor of the UsersAsyncService, separate from the "taskExecutor" so that a slow database cannot starve the
+     * other asynchronous tasks. Calls beyond its queue capacity are rejected.
+     */
+    @Bean(name = "usersTaskExecutor")
+    public AsyncTaskExecutor getUsersAsyncExecutor() {
+        log.debug("Creating Users Async Task Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(applicationProperties.getAsync().getCorePoolSize());
+        executor.setMaxPoolSize(applicationProperties.getAsync().getMaxPoolSize());
+        executor.setQueueCapacity(applicationProperties.getAsync().getQueueCapacity());
+        executor.setThreadNamePrefix("user-svc-Users-");
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
+    /**
+     * Executor of the users exports, which hold a thread, a database cursor and a connection as long as their client
+     * reads. It has no queue: an export is rejected when all its threads are busy.
+     */
+    @Bean(name = "usersExportTaskExecutor")
+    public AsyncTaskExecutor getUsersExportAsyncExecutor() {
+        log.debug("Creating Users Export Async Task Executor");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(applicationProperties.getAsync().getExportPoolSize());
+        executor.setMaxPoolSize(applicationProperties.getAsync().getExportPoolSize());
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("user-svc-Export-");
+        return new ExceptionHandlingAsyncTaskExecutor(executor);
+    }
+
     @Override
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
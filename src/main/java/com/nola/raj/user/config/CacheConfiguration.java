@@ -0,0 +1,126 @@
+package com.nola.raj.user.config;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.github.jhipster.config.jcache.BeanClassLoaderAwareJCacheRegionFactory;
+import org.hibernate.cache.internal.StandardQueryCache;
+import org.hibernate.cache.spi.UpdateTimestampsCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.cache.JCacheManagerCustomizer;
+import org.springframework.cache.annotation.CachingConfigurerSupport;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Local in-JVM cache, used as the Hibernate second-level cache through JCache, and by the Spring cache annotations.
+ * <p>
+ * Every region is a Caffeine cache bounded by the size and time-to-live configured in
+ * {@link ApplicationProperties.Cache}. Hits and misses are published in the Dropwizard registry under "cache.[region]".
+ * <p>
+ * The caching advice runs outside of the transactional one, so a cache hit does not open a transaction. A region
+ * which is not enabled is not created, and the annotated methods then call through.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfiguration extends CachingConfigurerSupport {
+
+    private final Logger log = LoggerFactory.getLogger(CacheConfiguration.class);
+
+    private final ApplicationProperties.Cache cacheProperties;
+
+    private final MetricRegistry metricRegistry;
+
+    private final ObjectProvider<org.springframework.cache.CacheManager> cacheManagerProvider;
+
+    public CacheConfiguration(ApplicationProperties applicationProperties, MetricRegistry metricRegistry,
+                              ObjectProvider<org.springframework.cache.CacheManager> cacheManagerProvider) {
+        BeanClassLoaderAwareJCacheRegionFactory.setBeanClassLoader(this.getClass().getClassLoader());
+        this.cacheProperties = applicationProperties.getCache();
+        this.metricRegistry = metricRegistry;
+        this.cacheManagerProvider = cacheManagerProvider;
+    }
+
+    @Override
+    public CacheResolver cacheResolver() {
+        return new PassThroughCacheResolver(cacheManagerProvider);
+    }
+
+    @Bean
+    public JCacheManagerCustomizer cacheManagerCustomizer() {
+        return cm -> {
+            createCache(cm, StandardQueryCache.class.getName());
+            createCache(cm, UpdateTimestampsCache.class.getName());
+            createCache(cm, com.nola.raj.user.domain.Users.class.getName());
+            createCache(cm, com.nola.raj.user.service.UsersService.USERS_BY_ID_CACHE);
+            // jhipster-needle-caffeine-add-entry
+        };
+    }
+
+    private void createCache(CacheManager cm, String cacheName) {
+        ApplicationProperties.Cache.Region region = cacheProperties.getRegion(cacheName);
+        if (!region.isEnabled()) {
+            log.debug("Cache {} is disabled", cacheName);
+            return;
+        }
+        if (cm.getCache(cacheName) == null) {
+            log.debug("Creating cache {} with {} entries and a {}s time-to-live", cacheName, region.getMaxEntries(),
+                region.getTimeToLiveSeconds());
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(region.getTimeToLiveSeconds())));
+            configuration.setStatisticsEnabled(true);
+            // Entries are immutable Hibernate cache entries or shared DTOs, there is no need to copy them
+            configuration.setStoreByValue(false);
+            cm.createCache(cacheName, configuration);
+        }
+        registerMetrics(cacheName);
+    }
+
+    private void registerMetrics(String cacheName) {
+        String prefix = MetricRegistry.name("cache", cacheName);
+        if (!metricRegistry.getNames().contains(MetricRegistry.name(prefix, "hits"))) {
+            metricRegistry.register(MetricRegistry.name(prefix, "hits"), statistic(cacheName, CacheStatisticsMXBean::getCacheHits));
+            metricRegistry.register(MetricRegistry.name(prefix, "misses"), statistic(cacheName, CacheStatisticsMXBean::getCacheMisses));
+            metricRegistry.register(MetricRegistry.name(prefix, "puts"), statistic(cacheName, CacheStatisticsMXBean::getCachePuts));
+            metricRegistry.register(MetricRegistry.name(prefix, "evictions"), statistic(cacheName, CacheStatisticsMXBean::getCacheEvictions));
+        }
+    }
+
+    /**
+     * Gauge reading one counter of the standard JCache statistics MBean, so it works with any JCache provider.
+     */
+    private Gauge<Long> statistic(String cacheName, ToLongFunction<CacheStatisticsMXBean> counter) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        return () -> {
+            try {
+                Set<ObjectName> names = server.queryNames(
+                    new ObjectName("javax.cache:type=CacheStatistics,Cache=" + cacheName + ",*"), null);
+                long total = 0;
+                for (ObjectName name : names) {
+                    total += counter.applyAsLong(JMX.newMXBeanProxy(server, name, CacheStatisticsMXBean.class));
+                }
+                return total;
+            } catch (MalformedObjectNameException e) {
+                return 0L;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.nola.raj.user.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reports the metrics of a Hikari pool to several trackers, as Hikari only accepts one.
+ * <p>
+ * This is used to keep the Dropwizard pool metrics while also publishing tagged Micrometer meters.
+ */
+public class CompositeMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    private final List<MetricsTrackerFactory> factories;
+
+    public CompositeMetricsTrackerFactory(MetricsTrackerFactory... factories) {
+        this.factories = Arrays.asList(factories);
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        List<IMetricsTracker> trackers = new ArrayList<>(factories.size());
+        for (MetricsTrackerFactory factory : factories) {
+            trackers.add(factory.create(poolName, poolStats));
+        }
+        return new CompositeMetricsTracker(trackers.toArray(new IMetricsTracker[0]));
+    }
+
+    private static final class CompositeMetricsTracker implements IMetricsTracker {
+
+        private final IMetricsTracker[] trackers;
+
+        private CompositeMetricsTracker(IMetricsTracker[] trackers) {
+            this.trackers = trackers;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            for (IMetricsTracker tracker : trackers) {
+                tracker.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            for (IMetricsTracker tracker : trackers) {
+                tracker.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            }
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            for (IMetricsTracker tracker : trackers) {
+                tracker.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            for (IMetricsTracker tracker : trackers) {
+                tracker.recordConnectionTimeout();
+            }
+        }
+
+        @Override
+        public void close() {
+            for (IMetricsTracker tracker : trackers) {
+                tracker.close();
+            }
+        }
+    }
+}
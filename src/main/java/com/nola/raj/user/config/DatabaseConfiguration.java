@@ -1,9 +1,11 @@
 package com.nola.raj.user.config;
 
+import com.codahale.metrics.MetricRegistry;
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.h2.H2ConfigurationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -13,6 +15,7 @@ import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
+import javax.sql.DataSource;
 import java.sql.SQLException;
 import java.lang.NumberFormatException;
 
@@ -30,6 +33,20 @@ public class DatabaseConfiguration {
         this.env = env;
     }
 
+    /**
+     * Apply the "application.datasource.pool" settings to the pool.
+     */
+    @Bean
+    public static HikariPoolTuningPostProcessor hikariPoolTuningPostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+        return new HikariPoolTuningPostProcessor(applicationProperties);
+    }
+
+    @Bean
+    public HikariPoolHealthIndicator hikariPoolHealthIndicator(DataSource dataSource, MetricRegistry metricRegistry,
+                                                               ApplicationProperties applicationProperties) {
+        return new HikariPoolHealthIndicator(dataSource, metricRegistry, applicationProperties);
+    }
+
     /**
      * Open the TCP port for the H2 database, so it is available remotely.
      *
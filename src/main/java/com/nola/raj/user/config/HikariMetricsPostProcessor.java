@@ -0,0 +1,85 @@
+package com.nola.raj.user.config;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.codahale.metrics.Timer;
+import com.nola.raj.user.aop.metrics.HdrHistogramReservoir;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.dropwizard.CodahaleMetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the metrics of the Hikari pools to both the Dropwizard and the Micrometer registries.
+ * <p>
+ * This runs before the HikariDataSourceMetricsPostProcessor of Spring Boot, which then leaves the pools alone. The
+ * registries are only looked up when a pool starts: looking them up when the data source is created could create the
+ * Micrometer registry before its own post processors are registered, losing its common tags and binders.
+ * <p>
+ * In the Dropwizard registry, the wait for a connection is recorded in an HdrHistogram and the usage of the
+ * connections in a sliding window, both over the latency window of "application.metrics.latency", so the high
+ * percentiles of the pool can be trusted.
+ */
+public class HikariMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MetricRegistry> metricRegistry;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final ObjectProvider<ApplicationProperties> applicationProperties;
+
+    public HikariMetricsPostProcessor(ObjectProvider<MetricRegistry> metricRegistry, ObjectProvider<MeterRegistry> meterRegistry,
+                                      ObjectProvider<ApplicationProperties> applicationProperties) {
+        this.metricRegistry = metricRegistry;
+        this.meterRegistry = meterRegistry;
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource) {
+            HikariDataSource hikariDataSource = (HikariDataSource) bean;
+            if (hikariDataSource.getMetricRegistry() == null && hikariDataSource.getMetricsTrackerFactory() == null) {
+                hikariDataSource.setMetricsTrackerFactory(new CompositeMetricsTrackerFactory(
+                    dropwizardMetricsTrackerFactory(), micrometerMetricsTrackerFactory()));
+            }
+        }
+        return bean;
+    }
+
+    private MetricsTrackerFactory dropwizardMetricsTrackerFactory() {
+        return (poolName, poolStats) -> {
+            MetricRegistry registry = metricRegistry.getIfAvailable();
+            if (registry == null) {
+                return new IMetricsTracker() { };
+            }
+            long window = applicationProperties.getObject().getMetrics().getLatency().getWindowSeconds();
+            String wait = MetricRegistry.name(poolName, "pool", "Wait");
+            if (!registry.getNames().contains(wait)) {
+                registry.register(wait, new Timer(new HdrHistogramReservoir(window, TimeUnit.SECONDS)));
+            }
+            String usage = MetricRegistry.name(poolName, "pool", "Usage");
+            if (!registry.getNames().contains(usage)) {
+                registry.register(usage, new Histogram(new SlidingTimeWindowArrayReservoir(window, TimeUnit.SECONDS)));
+            }
+            return new CodahaleMetricsTrackerFactory(registry).create(poolName, poolStats);
+        };
+    }
+
+    private MetricsTrackerFactory micrometerMetricsTrackerFactory() {
+        return (poolName, poolStats) -> {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry == null) {
+                return new IMetricsTracker() { };
+            }
+            return new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats);
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.nola.raj.user.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the Hikari pool as {@link #SATURATED} when it gets close to exhaustion: most connections are in use,
+ * threads are queuing for a connection, or the 99th percentile of the wait for a connection is high.
+ * <p>
+ * This happens before requests start timing out on the pool, so it can be alerted on, or used to shed load. The
+ * status is ordered between DOWN and UP by "management.health.status.order", and keeps the HTTP status 200.
+ */
+public class HikariPoolHealthIndicator extends AbstractHealthIndicator {
+
+    public static final Status SATURATED = new Status("SATURATED", "The connection pool is close to exhaustion");
+
+    private final DataSource dataSource;
+
+    private final MetricRegistry metricRegistry;
+
+    private final ApplicationProperties.Datasource.Saturation saturation;
+
+    public HikariPoolHealthIndicator(DataSource dataSource, MetricRegistry metricRegistry, ApplicationProperties applicationProperties) {
+        super("Hikari pool health check failed");
+        this.dataSource = dataSource;
+        this.metricRegistry = metricRegistry;
+        this.saturation = applicationProperties.getDatasource().getSaturation();
+    }
+
+    @Override
+    protected void doHealthCheck(Health.Builder builder) throws Exception {
+        HikariDataSource hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            builder.unknown().withDetail("pool", hikariDataSource.getPoolName());
+            return;
+        }
+        int active = pool.getActiveConnections();
+        int pending = pool.getThreadsAwaitingConnection();
+        int maximum = hikariDataSource.getMaximumPoolSize();
+        Timer wait = metricRegistry.getTimers().get(MetricRegistry.name(hikariDataSource.getPoolName(), "pool", "Wait"));
+        double waitP99Ms = wait == null ? 0 : wait.getSnapshot().get99thPercentile() / TimeUnit.MILLISECONDS.toNanos(1);
+
+        boolean saturated = active >= saturation.getActiveRatio() * maximum
+            || pending >= saturation.getPendingThreads()
+            || waitP99Ms >= saturation.getWaitP99Ms();
+        builder.status(saturated ? SATURATED : Status.UP)
+            .withDetail("pool", hikariDataSource.getPoolName())
+            .withDetail("active", active)
+            .withDetail("idle", pool.getIdleConnections())
+            .withDetail("maximum", maximum)
+            .withDetail("pending", pending)
+            .withDetail("waitP99Ms", waitP99Ms);
+    }
+}
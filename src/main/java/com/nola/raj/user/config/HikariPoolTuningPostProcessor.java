@@ -0,0 +1,44 @@
+package com.nola.raj.user.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Applies the "application.datasource.pool" settings to the Hikari pools, before they are started.
+ */
+public class HikariPoolTuningPostProcessor implements BeanPostProcessor {
+
+    private final Logger log = LoggerFactory.getLogger(HikariPoolTuningPostProcessor.class);
+
+    private final ObjectProvider<ApplicationProperties> applicationProperties;
+
+    public HikariPoolTuningPostProcessor(ObjectProvider<ApplicationProperties> applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource) {
+            ApplicationProperties.Datasource.Pool pool = applicationProperties.getObject().getDatasource().getPool();
+            if (pool.isEnabled()) {
+                log.debug("Tuning the {} pool: {} connections", beanName, pool.getMaximumPoolSize());
+                tune((HikariDataSource) bean, pool);
+            }
+        }
+        return bean;
+    }
+
+    static void tune(HikariDataSource hikariDataSource, ApplicationProperties.Datasource.Pool pool) {
+        hikariDataSource.setMaximumPoolSize(pool.getMaximumPoolSize());
+        hikariDataSource.setMinimumIdle(pool.getMinimumIdle());
+        hikariDataSource.setConnectionTimeout(pool.getConnectionTimeoutMs());
+        hikariDataSource.setValidationTimeout(pool.getValidationTimeoutMs());
+        hikariDataSource.setIdleTimeout(pool.getIdleTimeoutMs());
+        hikariDataSource.setMaxLifetime(pool.getMaxLifetimeMs());
+        hikariDataSource.setLeakDetectionThreshold(pool.getLeakDetectionThresholdMs());
+        pool.getDataSourceProperties().forEach(hikariDataSource::addDataSourceProperty);
+    }
+}
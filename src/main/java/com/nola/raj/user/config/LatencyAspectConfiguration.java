@@ -0,0 +1,21 @@
+package com.nola.raj.user.config;
+
+import com.nola.raj.user.aop.metrics.LatencyAspect;
+
+import com.codahale.metrics.MetricRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.*;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class LatencyAspectConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "application.metrics.latency", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LatencyAspect latencyAspect(MetricRegistry metricRegistry, ObjectProvider<MeterRegistry> meterRegistry,
+                                       ApplicationProperties applicationProperties) {
+        return new LatencyAspect(metricRegistry, meterRegistry, applicationProperties.getMetrics().getLatency().getWindowSeconds());
+    }
+}
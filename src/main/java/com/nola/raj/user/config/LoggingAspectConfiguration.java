@@ -2,8 +2,7 @@ package com.nola.raj.user.config;
 
 import com.nola.raj.user.aop.logging.LoggingAspect;
 
-import io.github.jhipster.config.JHipsterConstants;
-
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 
@@ -11,9 +10,13 @@ import org.springframework.core.env.Environment;
 @EnableAspectJAutoProxy
 public class LoggingAspectConfiguration {
 
+    /**
+     * The aspect only exists when "application.tracing.enabled" is true: otherwise, calls to repositories, services
+     * and REST endpoints are not intercepted at all.
+     */
     @Bean
-    @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    @ConditionalOnProperty(prefix = "application.tracing", name = "enabled", havingValue = "true")
+    public LoggingAspect loggingAspect(Environment env, ApplicationProperties applicationProperties) {
+        return new LoggingAspect(env, applicationProperties);
     }
 }
@@ -10,7 +10,7 @@ import com.codahale.metrics.health.HealthCheckRegistry;
 import com.codahale.metrics.jvm.*;
 import com.ryantenney.metrics.spring.config.annotation.EnableMetrics;
 import com.ryantenney.metrics.spring.config.annotation.MetricsConfigurerAdapter;
-import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.prometheus.client.CollectorRegistry;
 import io.prometheus.client.dropwizard.DropwizardExports;
 import io.prometheus.client.exporter.MetricsServlet;
@@ -18,7 +18,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.Marker;
 import org.slf4j.MarkerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.metrics.MeterRegistryCustomizer;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.context.annotation.*;
 
@@ -46,17 +48,10 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter implements Se
 
     private final JHipsterProperties jHipsterProperties;
 
-    private HikariDataSource hikariDataSource;
-
     public MetricsConfiguration(JHipsterProperties jHipsterProperties) {
         this.jHipsterProperties = jHipsterProperties;
     }
 
-    @Autowired(required = false)
-    public void setHikariDataSource(HikariDataSource hikariDataSource) {
-        this.hikariDataSource = hikariDataSource;
-    }
-
     @Override
     @Bean
     public MetricRegistry getMetricRegistry() {
@@ -69,6 +64,24 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter implements Se
         return healthCheckRegistry;
     }
 
+    /**
+     * Tag all the Micrometer meters with the application name, so they can be told apart once aggregated.
+     */
+    @Bean
+    public MeterRegistryCustomizer<MeterRegistry> commonTagsCustomizer(@Value("${spring.application.name}") String applicationName) {
+        return registry -> registry.config().commonTags("application", applicationName);
+    }
+
+    /**
+     * Monitor the datasource in both registries.
+     */
+    @Bean
+    public static HikariMetricsPostProcessor hikariMetricsPostProcessor(ObjectProvider<MetricRegistry> metricRegistry,
+                                                                        ObjectProvider<MeterRegistry> meterRegistry,
+                                                                        ObjectProvider<ApplicationProperties> applicationProperties) {
+        return new HikariMetricsPostProcessor(metricRegistry, meterRegistry, applicationProperties);
+    }
+
     @PostConstruct
     public void init() {
         log.debug("Registering JVM gauges");
@@ -78,12 +91,6 @@ public class MetricsConfiguration extends MetricsConfigurerAdapter implements Se
         metricRegistry.register(PROP_METRIC_REG_JVM_FILES, new FileDescriptorRatioGauge());
         metricRegistry.register(PROP_METRIC_REG_JVM_BUFFERS, new BufferPoolMetricSet(ManagementFactory.getPlatformMBeanServer()));
         metricRegistry.register(PROP_METRIC_REG_JVM_ATTRIBUTE_SET, new JvmAttributeGaugeSet());
-        if (hikariDataSource != null) {
-            log.debug("Monitoring the datasource");
-            // remove the factory created by HikariDataSourceMetricsPostProcessor until JHipster migrate to Micrometer
-            hikariDataSource.setMetricsTrackerFactory(null);
-            hikariDataSource.setMetricRegistry(metricRegistry);
-        }
         if (jHipsterProperties.getMetrics().getJmx().isEnabled()) {
             log.debug("Initializing Metrics JMX reporting");
             JmxReporter jmxReporter = JmxReporter.forRegistry(metricRegistry).build();
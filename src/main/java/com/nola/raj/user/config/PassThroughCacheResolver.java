@@ -0,0 +1,50 @@
+package com.nola.raj.user.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheResolver;
+import org.springframework.cache.support.NoOpCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves caches from the {@link CacheManager}, and falls back to a pass-through {@link NoOpCache} when a cache
+ * has not been created. This way a cache region can be switched off by configuration, and the annotated methods
+ * then simply call through.
+ */
+class PassThroughCacheResolver implements CacheResolver {
+
+    private final ObjectProvider<CacheManager> cacheManagerProvider;
+
+    private final ConcurrentMap<String, Cache> noOpCaches = new ConcurrentHashMap<>();
+
+    private volatile CacheManager cacheManager;
+
+    PassThroughCacheResolver(ObjectProvider<CacheManager> cacheManagerProvider) {
+        this.cacheManagerProvider = cacheManagerProvider;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<String> cacheNames = context.getOperation().getCacheNames();
+        List<Cache> caches = new ArrayList<>(cacheNames.size());
+        for (String cacheName : cacheNames) {
+            Cache cache = getCacheManager().getCache(cacheName);
+            caches.add(cache != null ? cache : noOpCaches.computeIfAbsent(cacheName, NoOpCache::new));
+        }
+        return caches;
+    }
+
+    private CacheManager getCacheManager() {
+        if (cacheManager == null) {
+            cacheManager = cacheManagerProvider.getObject();
+        }
+        return cacheManager;
+    }
+}
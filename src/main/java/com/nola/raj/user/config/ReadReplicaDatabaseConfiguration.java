@@ -0,0 +1,72 @@
+package com.nola.raj.user.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the data source with one sending the read-only transactions to replicas of the database, when
+ * "application.datasource.routing.enabled" is true.
+ * <p>
+ * The primary pool is configured by the "spring.datasource" properties, as the default one. The replica pools copy its
+ * settings, and are only started on their first use, so the application starts even if a replica is down.
+ * <p>
+ * The "usersById" cache is filled from the primary, see {@link ReadReplicaRoutingDataSource#readFromPrimary}. The
+ * Hibernate second-level and query caches are not: they should be disabled when routing is enabled, unless the lag of
+ * the replicas is acceptable for them.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "application.datasource.routing", name = "enabled", havingValue = "true")
+public class ReadReplicaDatabaseConfiguration {
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaDatabaseConfiguration.class);
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (StringUtils.hasText(properties.getName())) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                     ApplicationProperties applicationProperties) {
+        ApplicationProperties.Datasource.Routing routing = applicationProperties.getDatasource().getRouting();
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (ApplicationProperties.Datasource.Routing.Replica replica : routing.getReplicas()) {
+            HikariDataSource replicaDataSource = new HikariDataSource();
+            primaryDataSource.copyStateTo(replicaDataSource);
+            replicaDataSource.setPoolName("replica-" + (replicas.size() + 1));
+            replicaDataSource.setJdbcUrl(replica.getUrl());
+            if (replica.getUsername() != null) {
+                replicaDataSource.setUsername(replica.getUsername());
+                replicaDataSource.setPassword(replica.getPassword());
+            }
+            replicaDataSource.setReadOnly(true);
+            replicas.add(replicaDataSource);
+        }
+        log.info("Routing the read-only transactions to {} replicas, balanced by {}", replicas.size(), routing.getBalancing());
+        return new ReadReplicaRoutingDataSource(primaryDataSource, replicas, routing.getBalancing(), routing.getRetryIntervalMs());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
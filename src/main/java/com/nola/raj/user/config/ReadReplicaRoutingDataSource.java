@@ -0,0 +1,165 @@
+package com.nola.raj.user.config;
+
+import com.nola.raj.user.config.ApplicationProperties.Datasource.Routing.Balancing;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.pool.HikariPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Gives the connections of read-only transactions from the replica pools, and all the other connections from the
+ * primary pool.
+ * <p>
+ * The transaction must be known to be read-only when the connection is taken, so this data source is used behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, which only takes it on the first
+ * statement. Replicas are chosen in turn, or by their number of active connections. A replica failing to give a
+ * connection is skipped for a while, its reads going to the other replicas or, when none is left, to the primary.
+ * <p>
+ * Replicas lag behind the primary, so reads filling a cache run in {@link #readFromPrimary(Supplier)}: otherwise a
+ * read following an update could cache the row as it was before the update, for the whole time to live of the cache.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private final HikariDataSource primary;
+
+    private final List<HikariDataSource> replicas;
+
+    private final Balancing balancing;
+
+    private final long retryIntervalNanos;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    /**
+     * For each replica, the {@link System#nanoTime()} until which it is skipped, 0 when it is available.
+     */
+    private final AtomicLongArray unavailableUntil;
+
+    public ReadReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Balancing balancing,
+                                        long retryIntervalMs) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>(replicas);
+        this.balancing = balancing;
+        this.retryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(retryIntervalMs);
+        this.unavailableUntil = new AtomicLongArray(replicas.size());
+    }
+
+    /**
+     * Run a read on the primary, even in a read-only transaction. The connection must not have been taken yet in the
+     * transaction, which is the case when the read is the first statement of the transaction.
+     *
+     * @param read the read
+     * @param <T> the type of the result
+     * @return the result of the read
+     */
+    public static <T> T readFromPrimary(Supplier<T> read) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_READS.get() == null) {
+            for (int attempt = 0; attempt < replicas.size(); attempt++) {
+                int replica = select(System.nanoTime());
+                if (replica < 0) {
+                    break;
+                }
+                try {
+                    return replicas.get(replica).getConnection();
+                } catch (SQLException | HikariPool.PoolInitializationException e) {
+                    unavailableUntil.set(replica, System.nanoTime() + retryIntervalNanos);
+                    log.warn("Replica {} is unavailable, skipping it for {} ms: {}", replicas.get(replica).getPoolName(),
+                        TimeUnit.NANOSECONDS.toMillis(retryIntervalNanos), e.getMessage());
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("The pools have their own credentials");
+    }
+
+    /**
+     * @return the index of an available replica, or -1 if there is none
+     */
+    private int select(long now) {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        int selected = -1;
+        int selectedActive = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            int replica = (start + i) % size;
+            long until = unavailableUntil.get(replica);
+            if (until != 0 && until - now > 0) {
+                continue;
+            }
+            if (balancing == Balancing.ROUND_ROBIN) {
+                return replica;
+            }
+            int active = activeConnections(replicas.get(replica));
+            if (active < selectedActive) {
+                selected = replica;
+                selectedActive = active;
+            }
+        }
+        return selected;
+    }
+
+    private static int activeConnections(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    /**
+     * Unwrap to the primary pool, for its health and metrics.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    /**
+     * Close the replica pools, the primary one being a bean of its own.
+     */
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+}
@@ -2,7 +2,9 @@ package com.nola.raj.user.config;
 
 import com.nola.raj.user.security.*;
 import com.nola.raj.user.security.jwt.*;
+import com.nola.raj.user.service.TokenRevocationService;
 
+import com.codahale.metrics.MetricRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -13,6 +15,7 @@ import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
 
 @Configuration
@@ -23,11 +26,25 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     private final TokenProvider tokenProvider;
 
+    private final BearerTokenValidator bearerTokenValidator;
+
+    private final TokenRevocationService tokenRevocationService;
+
     private final SecurityProblemSupport problemSupport;
 
-    public SecurityConfiguration(TokenProvider tokenProvider, SecurityProblemSupport problemSupport) {
+    private final ApplicationProperties applicationProperties;
+
+    private final MetricRegistry metricRegistry;
+
+    public SecurityConfiguration(TokenProvider tokenProvider, BearerTokenValidator bearerTokenValidator,
+                                 TokenRevocationService tokenRevocationService, SecurityProblemSupport problemSupport,
+                                 ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
         this.tokenProvider = tokenProvider;
+        this.bearerTokenValidator = bearerTokenValidator;
+        this.tokenRevocationService = tokenRevocationService;
         this.problemSupport = problemSupport;
+        this.applicationProperties = applicationProperties;
+        this.metricRegistry = metricRegistry;
     }
 
     @Override
@@ -61,11 +78,12 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .antMatchers("/management/info").permitAll()
             .antMatchers("/management/**").hasAuthority(AuthoritiesConstants.ADMIN)
         .and()
+            .addFilterAfter(new RateLimitFilter(applicationProperties, metricRegistry), UsernamePasswordAuthenticationFilter.class)
             .apply(securityConfigurerAdapter());
 
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
-        return new JWTConfigurer(tokenProvider);
+        return new JWTConfigurer(tokenProvider, bearerTokenValidator, tokenRevocationService);
     }
 }
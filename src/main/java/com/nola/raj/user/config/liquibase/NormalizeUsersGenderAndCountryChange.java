@@ -0,0 +1,134 @@
+package com.nola.raj.user.config.liquibase;
+
+import com.nola.raj.user.domain.Country;
+import com.nola.raj.user.domain.enumeration.Gender;
+import liquibase.change.custom.CustomTaskChange;
+import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.CustomChangeException;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.SetupException;
+import liquibase.exception.ValidationErrors;
+import liquibase.resource.ResourceAccessor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rewrites the free-form gender and country values of the users table to the names of {@link Gender} and to
+ * ISO 3166-1 alpha-2 codes, before the columns are narrowed.
+ * <p>
+ * Genders are matched ignoring case, with "M" and "F" as abbreviations, and anything else becomes
+ * {@link Gender#OTHER}. Countries are matched by alpha-2 code, alpha-3 code or English name, ignoring case; the
+ * change fails and lists the values that match no country, so they can be fixed by hand.
+ */
+public class NormalizeUsersGenderAndCountryChange implements CustomTaskChange {
+
+    private int updatedRows;
+
+    @Override
+    public void execute(Database database) throws CustomChangeException {
+        JdbcConnection connection = (JdbcConnection) database.getConnection();
+        Map<String, String> countries = new HashMap<>();
+        Map<String, String> genders = new HashMap<>();
+        List<String> unknownCountries = new ArrayList<>();
+        try {
+            for (String value : selectDistinct(connection, "country")) {
+                String code = countryCode(value);
+                if (code == null) {
+                    unknownCountries.add(value);
+                } else {
+                    countries.put(value, code);
+                }
+            }
+            if (unknownCountries.isEmpty()) {
+                for (String value : selectDistinct(connection, "gender")) {
+                    genders.put(value, gender(value).name());
+                }
+                updatedRows = update(connection, "country", countries) + update(connection, "gender", genders);
+            }
+        } catch (DatabaseException | SQLException e) {
+            throw new CustomChangeException("Could not normalize the genders and countries of users", e);
+        }
+        if (!unknownCountries.isEmpty()) {
+            throw new CustomChangeException("Users have countries matching no ISO 3166-1 code: " + unknownCountries);
+        }
+    }
+
+    private List<String> selectDistinct(JdbcConnection connection, String column) throws DatabaseException, SQLException {
+        List<String> values = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("select distinct " + column + " from users");
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                values.add(resultSet.getString(1));
+            }
+        }
+        return values;
+    }
+
+    private int update(JdbcConnection connection, String column, Map<String, String> values) throws DatabaseException, SQLException {
+        int count = 0;
+        try (PreparedStatement statement = connection.prepareStatement("update users set " + column + " = ? where " + column + " = ?")) {
+            for (Map.Entry<String, String> value : values.entrySet()) {
+                if (!value.getKey().equals(value.getValue())) {
+                    statement.setString(1, value.getValue());
+                    statement.setString(2, value.getKey());
+                    count += statement.executeUpdate();
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Gender gender(String value) {
+        switch (value.trim().toUpperCase(Locale.ROOT)) {
+            case "M":
+            case "MALE":
+                return Gender.MALE;
+            case "F":
+            case "FEMALE":
+                return Gender.FEMALE;
+            default:
+                return Gender.OTHER;
+        }
+    }
+
+    private static String countryCode(String value) {
+        String normalized = value.trim();
+        if (Country.isValid(normalized)) {
+            return Country.of(normalized).getCode();
+        }
+        for (String code : Locale.getISOCountries()) {
+            Locale locale = new Locale("", code);
+            if (normalized.equalsIgnoreCase(locale.getISO3Country())
+                || normalized.equalsIgnoreCase(locale.getDisplayCountry(Locale.ENGLISH))) {
+                return code;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String getConfirmationMessage() {
+        return "Normalized the gender and country of " + updatedRows + " users";
+    }
+
+    @Override
+    public void setUp() throws SetupException {
+    }
+
+    @Override
+    public void setFileOpener(ResourceAccessor resourceAccessor) {
+    }
+
+    @Override
+    public ValidationErrors validate(Database database) {
+        return new ValidationErrors();
+    }
+}
@@ -0,0 +1,91 @@
+package com.nola.raj.user.domain;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A country, identified by its ISO 3166-1 alpha-2 code.
+ * <p>
+ * There is a single instance per code, so entities loaded from the database share them instead of holding a
+ * copy of the same string each.
+ */
+public final class Country implements Serializable, Comparable<Country> {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Map<String, Country> COUNTRIES;
+
+    static {
+        Map<String, Country> countries = new HashMap<>();
+        for (String code : Locale.getISOCountries()) {
+            countries.put(code, new Country(code));
+        }
+        COUNTRIES = Collections.unmodifiableMap(countries);
+    }
+
+    private final String code;
+
+    private Country(String code) {
+        this.code = code;
+    }
+
+    /**
+     * Get the country of an ISO 3166-1 alpha-2 code, ignoring case.
+     *
+     * @param code the code of the country
+     * @return the shared instance of the country
+     * @throws IllegalArgumentException if the code is not a known country code
+     */
+    public static Country of(String code) {
+        Country country = code != null ? COUNTRIES.get(code.trim().toUpperCase(Locale.ROOT)) : null;
+        if (country == null) {
+            throw new IllegalArgumentException("Unknown country code: " + code);
+        }
+        return country;
+    }
+
+    /**
+     * @param code the code to check
+     * @return true if the code is a known ISO 3166-1 alpha-2 code, ignoring case
+     */
+    public static boolean isValid(String code) {
+        return code != null && COUNTRIES.containsKey(code.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    private Object readResolve() {
+        return of(code);
+    }
+
+    @Override
+    public int compareTo(Country other) {
+        return code.compareTo(other.code);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return code.equals(((Country) o).code);
+    }
+
+    @Override
+    public int hashCode() {
+        return code.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return code;
+    }
+}
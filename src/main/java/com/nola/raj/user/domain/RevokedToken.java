@@ -0,0 +1,102 @@
+package com.nola.raj.user.domain;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A JWT revoked before it expires, identified by its "jti" claim.
+ * <p>
+ * The row is only needed until {@code expiresAt}: after that, the token is rejected anyway.
+ */
+@Entity
+@Table(name = "revoked_token")
+public class RevokedToken implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @NotNull
+    @Size(max = 64)
+    @Column(name = "jti", length = 64)
+    private String jti;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @NotNull
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+
+    public String getJti() {
+        return jti;
+    }
+
+    public RevokedToken jti(String jti) {
+        this.jti = jti;
+        return this;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public RevokedToken expiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+        return this;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public RevokedToken revokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+        return this;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        RevokedToken revokedToken = (RevokedToken) o;
+        if (revokedToken.getJti() == null || getJti() == null) {
+            return false;
+        }
+        return Objects.equals(getJti(), revokedToken.getJti());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getJti());
+    }
+
+    @Override
+    public String toString() {
+        return "RevokedToken{" +
+            "jti='" + getJti() + "'" +
+            ", expiresAt='" + getExpiresAt() + "'" +
+            ", revokedAt='" + getRevokedAt() + "'" +
+            "}";
+    }
+}
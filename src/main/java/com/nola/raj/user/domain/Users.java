@@ -1,5 +1,10 @@
 package com.nola.raj.user.domain;
 
+import com.nola.raj.user.domain.converter.CountryConverter;
+import com.nola.raj.user.domain.converter.GenderConverter;
+import com.nola.raj.user.domain.enumeration.Gender;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.*;
@@ -12,13 +17,14 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
 public class Users implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
-    @SequenceGenerator(name = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator", sequenceName = "hibernate_sequence", allocationSize = 50)
     private Long id;
 
     @Column(name = "name")
@@ -29,16 +35,18 @@ public class Users implements Serializable {
     private Integer age;
 
     @NotNull
-    @Column(name = "gender", nullable = false)
-    private String gender;
+    @Convert(converter = GenderConverter.class)
+    @Column(name = "gender", length = 6, nullable = false)
+    private Gender gender;
 
     @NotNull
     @Column(name = "email", nullable = false)
     private String email;
 
     @NotNull
-    @Column(name = "country", nullable = false)
-    private String country;
+    @Convert(converter = CountryConverter.class)
+    @Column(name = "country", length = 2, nullable = false)
+    private Country country;
 
     // jhipster-needle-entity-add-field - JHipster will add fields here, do not remove
     public Long getId() {
@@ -75,16 +83,16 @@ public class Users implements Serializable {
         this.age = age;
     }
 
-    public String getGender() {
+    public Gender getGender() {
         return gender;
     }
 
-    public Users gender(String gender) {
+    public Users gender(Gender gender) {
         this.gender = gender;
         return this;
     }
 
-    public void setGender(String gender) {
+    public void setGender(Gender gender) {
         this.gender = gender;
     }
 
@@ -101,16 +109,16 @@ public class Users implements Serializable {
         this.email = email;
     }
 
-    public String getCountry() {
+    public Country getCountry() {
         return country;
     }
 
-    public Users country(String country) {
+    public Users country(Country country) {
         this.country = country;
         return this;
     }
 
-    public void setCountry(String country) {
+    public void setCountry(Country country) {
         this.country = country;
     }
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here, do not remove
@@ -0,0 +1,23 @@
+package com.nola.raj.user.domain.converter;
+
+import com.nola.raj.user.domain.Country;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a {@link Country} as its ISO 3166-1 alpha-2 code, and reads it back as the shared instance of that code.
+ */
+@Converter
+public class CountryConverter implements AttributeConverter<Country, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Country country) {
+        return country != null ? country.getCode() : null;
+    }
+
+    @Override
+    public Country convertToEntityAttribute(String code) {
+        return code != null ? Country.of(code) : null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.nola.raj.user.domain.converter;
+
+import com.nola.raj.user.domain.enumeration.Gender;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Stores a {@link Gender} as its name, and reads it back as the enum constant.
+ */
+@Converter
+public class GenderConverter implements AttributeConverter<Gender, String> {
+
+    @Override
+    public String convertToDatabaseColumn(Gender gender) {
+        return gender != null ? gender.name() : null;
+    }
+
+    @Override
+    public Gender convertToEntityAttribute(String value) {
+        return value != null ? Gender.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.nola.raj.user.domain.enumeration;
+
+import java.util.Locale;
+
+/**
+ * The Gender enumeration.
+ */
+public enum Gender {
+    MALE, FEMALE, OTHER;
+
+    /**
+     * Parse a gender, ignoring case.
+     *
+     * @param value the name of the gender
+     * @return the gender
+     * @throws IllegalArgumentException if the value is not a gender
+     */
+    public static Gender fromValue(String value) {
+        return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
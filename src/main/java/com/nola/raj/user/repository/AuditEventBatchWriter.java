@@ -0,0 +1,167 @@
+package com.nola.raj.user.repository;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.nola.raj.user.config.ApplicationProperties;
+import com.nola.raj.user.domain.PersistentAuditEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the audit events in the background, so that auditing adds no latency to the request that triggered it.
+ * <p>
+ * Events are queued in a bounded lock-free queue, and written {@code application.audit.batch-size} at a time, each
+ * batch in one transaction: with the JDBC batching of Hibernate, the events and their data are then inserted with a
+ * few batched statements, instead of one insert per event and per data entry. The queue is flushed every
+ * {@code application.audit.flush-interval-ms}, and as soon as a full batch is queued. When the queue is full, the
+ * {@code application.audit.overflow-policy} applies. The audit.events.* metrics count the written and dropped events.
+ */
+@Component
+public class AuditEventBatchWriter {
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventBatchWriter.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final Executor executor;
+
+    private final ApplicationProperties.Audit properties;
+
+    private final Queue<PersistentAuditEvent> queue = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Size of the queue, as {@link ConcurrentLinkedQueue#size()} is not a constant-time operation.
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Meter written;
+
+    private final Meter dropped;
+
+    public AuditEventBatchWriter(PersistenceAuditEventRepository persistenceAuditEventRepository,
+                                 @Qualifier("taskExecutor") Executor taskExecutor,
+                                 ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.executor = taskExecutor;
+        this.properties = applicationProperties.getAudit();
+        this.written = metricRegistry.meter("audit.events.written");
+        this.dropped = metricRegistry.meter("audit.events.dropped");
+        metricRegistry.register("audit.events.queued", (Gauge<Integer>) queued::get);
+    }
+
+    /**
+     * Queue an event to be written.
+     *
+     * @param event the event to write
+     */
+    public void write(PersistentAuditEvent event) {
+        if (!offer(event)) {
+            switch (properties.getOverflowPolicy()) {
+                case DROP_OLDEST:
+                    if (poll() != null) {
+                        dropped.mark();
+                    }
+                    if (!offer(event)) {
+                        dropped.mark();
+                    }
+                    break;
+                case CALLER_RUNS:
+                    flush();
+                    if (!offer(event)) {
+                        writeBatch(Collections.singletonList(event));
+                    }
+                    break;
+                default:
+                    dropped.mark();
+                    log.debug("Audit event queue is full, dropping {}", event);
+            }
+        }
+        if (queued.get() >= properties.getBatchSize()) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Write all the queued events.
+     */
+    @Scheduled(fixedDelayString = "${application.audit.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        flushRequested.set(false);
+        int batchSize = properties.getBatchSize();
+        List<PersistentAuditEvent> batch = new ArrayList<>(batchSize);
+        PersistentAuditEvent event;
+        while ((event = poll()) != null) {
+            batch.add(event);
+            if (batch.size() == batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Write the events still queued when the application stops.
+     */
+    @PreDestroy
+    public void destroy() {
+        flush();
+    }
+
+    private boolean offer(PersistentAuditEvent event) {
+        if (queued.incrementAndGet() > properties.getQueueCapacity()) {
+            queued.decrementAndGet();
+            return false;
+        }
+        queue.offer(event);
+        return true;
+    }
+
+    private PersistentAuditEvent poll() {
+        PersistentAuditEvent event = queue.poll();
+        if (event != null) {
+            queued.decrementAndGet();
+        }
+        return event;
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+                log.debug("Could not request a flush of the audit events, waiting for the next scheduled one: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void writeBatch(List<PersistentAuditEvent> batch) {
+        try {
+            persistenceAuditEventRepository.saveAll(batch);
+            written.mark(batch.size());
+        } catch (RuntimeException e) {
+            dropped.mark(batch.size());
+            log.warn("Could not write {} audit events, they are dropped: {}", batch.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.nola.raj.user.repository;
+
+import com.nola.raj.user.domain.PersistentAuditEvent;
+import com.nola.raj.user.domain.PersistentAuditEvent_;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.time.Instant;
+
+/**
+ * Spring Data JPA repository for the PersistentAuditEvent entity.
+ */
+public interface PersistenceAuditEventRepository extends JpaRepository<PersistentAuditEvent, Long>,
+    JpaSpecificationExecutor<PersistentAuditEvent> {
+
+    /**
+     * Match the events of a principal, after a date and of a type, each criterion being ignored when null.
+     */
+    static Specification<PersistentAuditEvent> matching(String principal, Instant after, String type) {
+        Specification<PersistentAuditEvent> specification = Specification.where(null);
+        if (principal != null) {
+            specification = specification.and((root, query, builder) ->
+                builder.equal(root.get(PersistentAuditEvent_.principal), principal));
+        }
+        if (after != null) {
+            specification = specification.and((root, query, builder) ->
+                builder.greaterThan(root.get(PersistentAuditEvent_.auditEventDate), after));
+        }
+        if (type != null) {
+            specification = specification.and((root, query, builder) ->
+                builder.equal(root.get(PersistentAuditEvent_.auditEventType), type));
+        }
+        return specification;
+    }
+}
@@ -0,0 +1,26 @@
+package com.nola.raj.user.repository;
+
+import com.nola.raj.user.domain.RevokedToken;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+
+/**
+ * Spring Data  repository for the RevokedToken entity.
+ */
+@SuppressWarnings("unused")
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+
+    List<RevokedToken> findAllByExpiresAtAfter(Instant now);
+
+    List<RevokedToken> findAllByRevokedAtGreaterThanEqualAndExpiresAtAfter(Instant since, Instant now);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from RevokedToken revokedToken where revokedToken.expiresAt <= :now")
+    int deleteAllExpired(@Param("now") Instant now);
+}
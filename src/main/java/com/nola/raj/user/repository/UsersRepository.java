@@ -1,15 +1,121 @@
 package com.nola.raj.user.repository;
 
+import com.nola.raj.user.domain.Country;
 import com.nola.raj.user.domain.Users;
+import com.nola.raj.user.domain.enumeration.Gender;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
 
 /**
  * Spring Data  repository for the Users entity.
  */
 @SuppressWarnings("unused")
 @Repository
-public interface UsersRepository extends JpaRepository<Users, Long> {
+public interface UsersRepository extends JpaRepository<Users, Long>, JpaSpecificationExecutor<Users> {
+
+    /**
+     * Width, in years, of the age buckets of {@link #countByAgeBucket()}.
+     */
+    int AGE_BUCKET_WIDTH = 10;
+
+    Optional<Users> findOneByEmailIgnoreCase(String email);
+
+    @Query("select users from Users users where upper(users.email) in :emails")
+    List<Users> findAllByUpperCaseEmailIn(@Param("emails") Collection<String> emails);
+
+    Slice<Users> findAllByOrderByIdAsc(Pageable pageable);
+
+    Slice<Users> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Slice<Users> findAllByOrderByCountryAscIdAsc(Pageable pageable);
+
+    /**
+     * Users after the given (country, id) position. The redundant "country >= :country" bound lets the database
+     * range-scan the (country, id) index from that position, which it cannot do with the disjunction alone.
+     */
+    @Query("select users from Users users where users.country >= :country "
+        + "and (users.country > :country or users.id > :id) order by users.country asc, users.id asc")
+    Slice<Users> findAfterCountryAndId(@Param("country") Country country, @Param("id") Long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select users.country as country, count(users) as total from Users users group by users.country")
+    List<CountByCountry> countByCountry();
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select users.gender as gender, count(users) as total from Users users group by users.gender")
+    List<CountByGender> countByGender();
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select users.country as country, users.gender as gender, count(users) as total from Users users "
+        + "group by users.country, users.gender")
+    List<CountByCountryAndGender> countByCountryAndGender();
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Query("select (users.age / " + AGE_BUCKET_WIDTH + ") * " + AGE_BUCKET_WIDTH + " as bucket, count(users) as total from Users users "
+        + "group by (users.age / " + AGE_BUCKET_WIDTH + ") * " + AGE_BUCKET_WIDTH)
+    List<CountByAgeBucket> countByAgeBucket();
+
+    @QueryHints(value = {
+        @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HINT_CACHEABLE, value = "false"),
+        @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select users from Users users order by users.id asc")
+    Stream<Users> streamAllByOrderByIdAsc();
+
+    /**
+     * Number of users of a country.
+     */
+    interface CountByCountry {
+
+        Country getCountry();
+
+        Long getTotal();
+    }
+
+    /**
+     * Number of users of a gender.
+     */
+    interface CountByGender {
+
+        Gender getGender();
+
+        Long getTotal();
+    }
+
+    /**
+     * Number of users sharing a country and a gender.
+     */
+    interface CountByCountryAndGender {
+
+        Country getCountry();
+
+        Gender getGender();
+
+        Long getTotal();
+    }
+
+    /**
+     * Number of users whose age is in the bucket starting at the given age.
+     */
+    interface CountByAgeBucket {
+
+        Integer getBucket();
 
+        Long getTotal();
+    }
 }
@@ -0,0 +1,160 @@
+package com.nola.raj.user.security;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.nola.raj.user.config.ApplicationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.web.filter.GenericFilterBean;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the rate of requests of each user, or of each IP address for requests which are not authenticated.
+ * <p>
+ * Each configured limit applies to the requests matching its pattern, the first matching limit wins, and requests
+ * matching no limit are not limited. Clients get a token bucket per limit; a request exceeding its bucket gets a 429
+ * (Too Many Requests) response with a Retry-After header. Buckets are lock-free, and are evicted once idle or when
+ * there are more than {@code application.security.rate-limit.max-buckets} of them, so memory stays bounded.
+ */
+public class RateLimitFilter extends GenericFilterBean {
+
+    private static final String TOO_MANY_REQUESTS_PROBLEM =
+        "{\"title\":\"Too Many Requests\",\"status\":429,\"detail\":\"Rate limit exceeded, retry later\"}";
+
+    private final List<Limit> limits = new ArrayList<>();
+
+    private final Counter rejectedRequests;
+
+    public RateLimitFilter(ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        ApplicationProperties.Security.RateLimit properties = applicationProperties.getSecurity().getRateLimit();
+        if (properties.isEnabled()) {
+            for (ApplicationProperties.Security.RateLimit.Limit limit : properties.getLimits()) {
+                limits.add(new Limit(limit, properties));
+            }
+        }
+        this.rejectedRequests = metricRegistry.counter("security.rate-limit.rejected");
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+        throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            // the request was already counted when it was first dispatched
+            filterChain.doFilter(servletRequest, servletResponse);
+            return;
+        }
+        for (Limit limit : limits) {
+            if (limit.matcher.matches(request)) {
+                long retryAfterNanos = limit.bucket(clientKey(request)).tryConsume(System.nanoTime());
+                if (retryAfterNanos > 0) {
+                    rejectedRequests.inc();
+                    tooManyRequests((HttpServletResponse) servletResponse, retryAfterNanos);
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static void tooManyRequests(HttpServletResponse response, long retryAfterNanos) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L))));
+        response.setContentType("application/problem+json");
+        response.getWriter().write(TOO_MANY_REQUESTS_PROBLEM);
+    }
+
+    /**
+     * A configured limit, and the buckets of the clients it applies to.
+     */
+    private static final class Limit {
+
+        private final AntPathRequestMatcher matcher;
+
+        private final long emissionIntervalNanos;
+
+        private final long burstNanos;
+
+        private final Cache<String, TokenBucket> buckets;
+
+        private Limit(ApplicationProperties.Security.RateLimit.Limit limit, ApplicationProperties.Security.RateLimit properties) {
+            this.matcher = new AntPathRequestMatcher(limit.getPattern(), limit.getMethod());
+            this.emissionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / limit.getRefillPerSecond());
+            this.burstNanos = emissionIntervalNanos * limit.getCapacity();
+            this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxBuckets())
+                .expireAfterAccess(properties.getIdleTimeoutSeconds(), TimeUnit.SECONDS)
+                .build();
+        }
+
+        private TokenBucket bucket(String clientKey) {
+            return buckets.get(clientKey, key -> new TokenBucket(emissionIntervalNanos, burstNanos));
+        }
+    }
+
+    /**
+     * A token bucket stored as a single "theoretical arrival time" (the GCRA form of a token bucket): a request takes
+     * a token by pushing that time one emission interval further, which is allowed as long as it stays within the
+     * capacity of the bucket ahead of now. Taking a token is a single compare-and-set.
+     */
+    static final class TokenBucket {
+
+        private final long emissionIntervalNanos;
+
+        private final long burstNanos;
+
+        private final AtomicLong theoreticalArrivalTime = new AtomicLong(Long.MIN_VALUE);
+
+        TokenBucket(long emissionIntervalNanos, long burstNanos) {
+            this.emissionIntervalNanos = emissionIntervalNanos;
+            this.burstNanos = burstNanos;
+        }
+
+        /**
+         * Take a token.
+         *
+         * @param now the current time, in nanoseconds
+         * @return 0 if a token has been taken, or the time to wait for the next token, in nanoseconds
+         */
+        long tryConsume(long now) {
+            while (true) {
+                long current = theoreticalArrivalTime.get();
+                long next = (current == Long.MIN_VALUE || current - now < 0 ? now : current) + emissionIntervalNanos;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (theoreticalArrivalTime.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.nola.raj.user.security.jwt;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Extracts the JWT of an "Authorization: Bearer" header, rejecting tokens which cannot be valid before they reach
+ * the JWT parser.
+ * <p>
+ * The checks only scan the header value: the number of segments, the length of the token, the base64url alphabet
+ * and the "alg" and "kid" of the JOSE header. They throw no exception, so garbage sent by scanners is rejected
+ * without the cost of building stack traces or verifying a signature. Rejected tokens are counted by reason in the
+ * {@code security.jwt.rejected.*} metrics.
+ */
+@Component
+public class BearerTokenValidator {
+
+    private final Logger log = LoggerFactory.getLogger(BearerTokenValidator.class);
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /**
+     * Shortest token with a header, a payload and a signature, e.g. {"alg":"HS256"}.{}.signature.
+     */
+    static final int MIN_TOKEN_LENGTH = 32;
+
+    static final int MAX_TOKEN_LENGTH = 8192;
+
+    static final int MAX_HEADER_LENGTH = 1024;
+
+    /**
+     * Why a bearer token has been rejected before being parsed.
+     */
+    public enum Rejection {
+        LENGTH, SEGMENTS, ALPHABET, HEADER, ALGORITHM, KEY_ID
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JWKSKeyResolver jwksKeyResolver;
+
+    private final Map<Rejection, Counter> rejections = new EnumMap<>(Rejection.class);
+
+    public BearerTokenValidator(JWKSKeyResolver jwksKeyResolver, MetricRegistry metricRegistry) {
+        this.jwksKeyResolver = jwksKeyResolver;
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, metricRegistry.counter(
+                MetricRegistry.name("security.jwt.rejected", rejection.name().toLowerCase(Locale.ROOT))));
+        }
+    }
+
+    /**
+     * Get the token of an "Authorization" header.
+     *
+     * @param authorizationHeader the value of the header, may be null
+     * @return the token, or null if there is no bearer token or if it has been rejected
+     */
+    public String resolveToken(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.regionMatches(0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        Rejection rejection = check(authorizationHeader, BEARER_PREFIX.length());
+        if (rejection != null) {
+            rejections.get(rejection).inc();
+            log.debug("Rejected bearer token: {}", rejection);
+            return null;
+        }
+        return authorizationHeader.substring(BEARER_PREFIX.length());
+    }
+
+    /**
+     * Check the token starting at {@code start} in {@code value}.
+     *
+     * @return the reason why the token is rejected, or null if it may be valid
+     */
+    Rejection check(String value, int start) {
+        int end = value.length();
+        int length = end - start;
+        if (length < MIN_TOKEN_LENGTH || length > MAX_TOKEN_LENGTH) {
+            return Rejection.LENGTH;
+        }
+        int firstDot = -1;
+        int secondDot = -1;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                if (firstDot < 0) {
+                    firstDot = i;
+                } else if (secondDot < 0) {
+                    secondDot = i;
+                } else {
+                    return Rejection.SEGMENTS;
+                }
+            } else if (!isBase64Url(c)) {
+                return Rejection.ALPHABET;
+            }
+        }
+        if (secondDot < 0 || firstDot == start || secondDot == firstDot + 1 || secondDot == end - 1) {
+            return Rejection.SEGMENTS;
+        }
+        if (firstDot - start > MAX_HEADER_LENGTH || (firstDot - start) % 4 == 1) {
+            return Rejection.HEADER;
+        }
+        return checkHeader(value.substring(start, firstDot));
+    }
+
+    private Rejection checkHeader(String encodedHeader) {
+        String algorithm = null;
+        String keyId = null;
+        try (JsonParser parser = JSON_FACTORY.createParser(Base64.getUrlDecoder().decode(encodedHeader))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Rejection.HEADER;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if ("alg".equals(field)) {
+                    algorithm = token == JsonToken.VALUE_STRING ? parser.getText() : null;
+                } else if ("kid".equals(field)) {
+                    keyId = token == JsonToken.VALUE_STRING ? parser.getText() : null;
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            return Rejection.HEADER;
+        }
+        if (algorithm == null) {
+            return Rejection.ALGORITHM;
+        }
+        switch (algorithm) {
+            case "HS256":
+            case "HS384":
+            case "HS512":
+                return keyId == null ? null : Rejection.KEY_ID;
+            case "RS256":
+            case "RS384":
+            case "RS512":
+            case "PS256":
+            case "PS384":
+            case "PS512":
+            case "ES256":
+            case "ES384":
+            case "ES512":
+                return keyId != null && jwksKeyResolver.hasKey(keyId) ? null : Rejection.KEY_ID;
+            default:
+                return Rejection.ALGORITHM;
+        }
+    }
+
+    private static boolean isBase64Url(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+}
@@ -0,0 +1,266 @@
+package com.nola.raj.user.security.jwt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nola.raj.user.config.ApplicationProperties;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SecurityException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the public key of an asymmetrically signed JWT (RS256, ES256, ...) from its "kid" header.
+ * <p>
+ * Keys are read from a local JWKS file, or from all the {@code .json} files of a directory, as configured by
+ * {@code application.security.jwks.location}. The location is checked for changes periodically and reloaded
+ * atomically, so keys can be rotated without a restart. Keys are decoded once per load: resolving a key is a map
+ * lookup.
+ */
+@Component
+public class JWKSKeyResolver {
+
+    private final Logger log = LoggerFactory.getLogger(JWKSKeyResolver.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private volatile Map<String, JWKSKey> keys = Collections.emptyMap();
+
+    private volatile String loadedVersion;
+
+    /**
+     * Incremented after each load, so that the holders of a verified token know when to verify it again.
+     */
+    private volatile long generation;
+
+    public JWKSKeyResolver(ApplicationProperties applicationProperties, ObjectMapper objectMapper) {
+        this.applicationProperties = applicationProperties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Load the keys, failing if the configured location cannot be read.
+     */
+    @PostConstruct
+    public void init() {
+        String location = applicationProperties.getSecurity().getJwks().getLocation();
+        if (StringUtils.hasText(location)) {
+            try {
+                load(Paths.get(location));
+            } catch (IOException | GeneralSecurityException e) {
+                throw new IllegalStateException("Could not load the JWKS from " + location, e);
+            }
+        }
+    }
+
+    /**
+     * Reload the keys if the configured location has changed. On failure, the previous keys are kept.
+     */
+    @Scheduled(fixedDelayString = "${application.security.jwks.reload-interval-ms:30000}")
+    public void reload() {
+        String location = applicationProperties.getSecurity().getJwks().getLocation();
+        if (!StringUtils.hasText(location)) {
+            return;
+        }
+        try {
+            Path path = Paths.get(location);
+            if (!version(path).equals(loadedVersion)) {
+                load(path);
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            log.warn("Could not reload the JWKS from {}, keeping the {} previous keys: {}", location, keys.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Get the key of a token, checking that the algorithm of the token is the one of the key.
+     *
+     * @param header the header of the token
+     * @return the public key
+     * @throws SecurityException if no key has the "kid" of the token, or if the key is for another algorithm
+     */
+    public PublicKey resolve(JwsHeader header) {
+        JWKSKey key = keys.get(header.getKeyId());
+        if (key == null) {
+            throw new SecurityException("Unknown JWT key id: " + header.getKeyId());
+        }
+        if (!key.algorithm.getValue().equals(header.getAlgorithm())) {
+            throw new SecurityException("JWT algorithm " + header.getAlgorithm() + " does not match key " + header.getKeyId());
+        }
+        return key.publicKey;
+    }
+
+    /**
+     * @param keyId the "kid" of a token
+     * @return true if a key has this id
+     */
+    public boolean hasKey(String keyId) {
+        return keys.containsKey(keyId);
+    }
+
+    /**
+     * @return the generation of the loaded keys, which changes each time they are reloaded
+     */
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @return the ids of the loaded keys
+     */
+    public List<String> getKeyIds() {
+        return new ArrayList<>(keys.keySet());
+    }
+
+    private synchronized void load(Path location) throws IOException, GeneralSecurityException {
+        String version = version(location);
+        Map<String, JWKSKey> loadedKeys = new HashMap<>();
+        for (Path file : files(location)) {
+            JsonNode jwks = objectMapper.readTree(file.toFile());
+            JsonNode jwkList = jwks.has("keys") ? jwks.get("keys") : objectMapper.createArrayNode().add(jwks);
+            for (JsonNode jwk : jwkList) {
+                JWKSKey key = parseKey(jwk);
+                if (key != null) {
+                    loadedKeys.put(key.id, key);
+                }
+            }
+        }
+        keys = Collections.unmodifiableMap(loadedKeys);
+        loadedVersion = version;
+        generation++;
+        log.info("Loaded {} JWT public keys from {}: {}", loadedKeys.size(), location, loadedKeys.keySet());
+    }
+
+    private JWKSKey parseKey(JsonNode jwk) throws GeneralSecurityException {
+        String id = jwk.path("kid").asText(null);
+        String type = jwk.path("kty").asText(null);
+        if (id == null || (jwk.has("use") && !"sig".equals(jwk.get("use").asText()))) {
+            log.debug("Ignoring JWK without kid or not used for signatures: {}", id);
+            return null;
+        }
+        PublicKey publicKey;
+        SignatureAlgorithm algorithm;
+        if ("RSA".equals(type)) {
+            publicKey = KeyFactory.getInstance("RSA").generatePublic(
+                new RSAPublicKeySpec(decode(jwk, "n"), decode(jwk, "e")));
+            algorithm = SignatureAlgorithm.RS256;
+        } else if ("EC".equals(type)) {
+            String curve = jwk.path("crv").asText();
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            switch (curve) {
+                case "P-256":
+                    parameters.init(new ECGenParameterSpec("secp256r1"));
+                    algorithm = SignatureAlgorithm.ES256;
+                    break;
+                case "P-384":
+                    parameters.init(new ECGenParameterSpec("secp384r1"));
+                    algorithm = SignatureAlgorithm.ES384;
+                    break;
+                case "P-521":
+                    parameters.init(new ECGenParameterSpec("secp521r1"));
+                    algorithm = SignatureAlgorithm.ES512;
+                    break;
+                default:
+                    log.warn("Ignoring JWK {} with unsupported curve {}", id, curve);
+                    return null;
+            }
+            publicKey = KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(
+                new ECPoint(decode(jwk, "x"), decode(jwk, "y")), parameters.getParameterSpec(ECParameterSpec.class)));
+        } else {
+            log.warn("Ignoring JWK {} with unsupported key type {}", id, type);
+            return null;
+        }
+        if (jwk.has("alg")) {
+            try {
+                algorithm = SignatureAlgorithm.forName(jwk.get("alg").asText());
+            } catch (JwtException e) {
+                throw new GeneralSecurityException("JWK " + id + " has an unsupported algorithm", e);
+            }
+            if (!algorithm.getFamilyName().startsWith(type)) {
+                throw new GeneralSecurityException("JWK " + id + " of type " + type + " cannot be used with " + algorithm.getValue());
+            }
+        }
+        return new JWKSKey(id, publicKey, algorithm);
+    }
+
+    private static BigInteger decode(JsonNode jwk, String field) throws GeneralSecurityException {
+        JsonNode value = jwk.get(field);
+        if (value == null) {
+            throw new GeneralSecurityException("JWK " + jwk.path("kid").asText() + " has no \"" + field + "\"");
+        }
+        return new BigInteger(1, Base64.getUrlDecoder().decode(value.asText()));
+    }
+
+    private static List<Path> files(Path location) throws IOException {
+        List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(location)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(location, "*.json")) {
+                stream.forEach(files::add);
+            }
+            Collections.sort(files);
+        } else {
+            files.add(location);
+        }
+        return files;
+    }
+
+    /**
+     * A cheap fingerprint of the location, which changes when a file is added, removed or modified.
+     */
+    private static String version(Path location) throws IOException {
+        StringBuilder version = new StringBuilder();
+        for (Path file : files(location)) {
+            version.append(file.getFileName()).append(':')
+                .append(Files.getLastModifiedTime(file).toMillis()).append(':')
+                .append(Files.size(file)).append(';');
+        }
+        return version.toString();
+    }
+
+    /**
+     * A decoded public key, and the only algorithm it may verify.
+     */
+    private static final class JWKSKey {
+
+        private final String id;
+
+        private final PublicKey publicKey;
+
+        private final SignatureAlgorithm algorithm;
+
+        private JWKSKey(String id, PublicKey publicKey, SignatureAlgorithm algorithm) {
+            this.id = id;
+            this.publicKey = publicKey;
+            this.algorithm = algorithm;
+        }
+    }
+}
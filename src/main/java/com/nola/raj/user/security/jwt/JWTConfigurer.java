@@ -1,5 +1,6 @@
 package com.nola.raj.user.security.jwt;
 
+import com.nola.raj.user.service.TokenRevocationService;
 import org.springframework.security.config.annotation.SecurityConfigurerAdapter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.DefaultSecurityFilterChain;
@@ -9,13 +10,20 @@ public class JWTConfigurer extends SecurityConfigurerAdapter<DefaultSecurityFilt
 
     private TokenProvider tokenProvider;
 
-    public JWTConfigurer(TokenProvider tokenProvider) {
+    private BearerTokenValidator bearerTokenValidator;
+
+    private TokenRevocationService tokenRevocationService;
+
+    public JWTConfigurer(TokenProvider tokenProvider, BearerTokenValidator bearerTokenValidator,
+                         TokenRevocationService tokenRevocationService) {
         this.tokenProvider = tokenProvider;
+        this.bearerTokenValidator = bearerTokenValidator;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
     public void configure(HttpSecurity http) throws Exception {
-        JWTFilter customFilter = new JWTFilter(tokenProvider);
+        JWTFilter customFilter = new JWTFilter(tokenProvider, bearerTokenValidator, tokenRevocationService);
         http.addFilterBefore(customFilter, UsernamePasswordAuthenticationFilter.class);
     }
 }
@@ -1,8 +1,8 @@
 package com.nola.raj.user.security.jwt;
 
+import com.nola.raj.user.service.TokenRevocationService;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.util.StringUtils;
 import org.springframework.web.filter.GenericFilterBean;
 
 import javax.servlet.FilterChain;
@@ -22,27 +22,32 @@ public class JWTFilter extends GenericFilterBean {
 
     private TokenProvider tokenProvider;
 
-    public JWTFilter(TokenProvider tokenProvider) {
+    private BearerTokenValidator bearerTokenValidator;
+
+    private TokenRevocationService tokenRevocationService;
+
+    public JWTFilter(TokenProvider tokenProvider, BearerTokenValidator bearerTokenValidator,
+                     TokenRevocationService tokenRevocationService) {
         this.tokenProvider = tokenProvider;
+        this.bearerTokenValidator = bearerTokenValidator;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
-        String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        String jwt = bearerTokenValidator.resolveToken(httpServletRequest.getHeader(AUTHORIZATION_HEADER));
+        if (jwt != null) {
+            this.tokenProvider.getValidAuthentication(jwt)
+                .filter(authentication -> !isRevoked(authentication))
+                .ifPresent(authentication -> SecurityContextHolder.getContext().setAuthentication(authentication));
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
-    private String resolveToken(HttpServletRequest request){
-        String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
-        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
-            return bearerToken.substring(7);
-        }
-        return null;
+    private boolean isRevoked(Authentication authentication) {
+        Object principal = authentication.getPrincipal();
+        return principal instanceof JWTPrincipal && tokenRevocationService.isRevoked(((JWTPrincipal) principal).getTokenId());
     }
 }
@@ -0,0 +1,103 @@
+package com.nola.raj.user.security.jwt;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * The principal of a request authenticated by a JWT.
+ * <p>
+ * Unlike {@link org.springframework.security.core.userdetails.User}, it neither copies nor sorts its authorities:
+ * they are the shared, immutable collection built by {@link TokenProvider} for the role set of the token.
+ */
+public final class JWTPrincipal implements UserDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String login;
+
+    private final Collection<GrantedAuthority> authorities;
+
+    private final String tokenId;
+
+    private final Instant tokenExpiration;
+
+    JWTPrincipal(String login, Collection<GrantedAuthority> authorities, String tokenId, Instant tokenExpiration) {
+        this.login = login;
+        this.authorities = authorities;
+        this.tokenId = tokenId;
+        this.tokenExpiration = tokenExpiration;
+    }
+
+    /**
+     * @return the "jti" claim of the token, or null if the token has none and cannot be revoked
+     */
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    /**
+     * @return the expiration of the token, or null if it never expires
+     */
+    public Instant getTokenExpiration() {
+        return tokenExpiration;
+    }
+
+    @Override
+    public String getUsername() {
+        return login;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return login.equals(((JWTPrincipal) o).login);
+    }
+
+    @Override
+    public int hashCode() {
+        return login.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return login;
+    }
+}
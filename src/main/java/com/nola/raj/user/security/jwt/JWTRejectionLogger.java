@@ -0,0 +1,105 @@
+package com.nola.raj.user.security.jwt;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.nola.raj.user.config.ApplicationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts and logs the JWTs rejected by {@link TokenProvider}.
+ * <p>
+ * Every rejection increments a {@code security.jwt.invalid.*} counter, but at most
+ * {@code application.security.rejection-log.max-per-second} of them are logged, and only one logged rejection out of
+ * {@code sample-rate} includes its stack trace. The number of rejections which were not logged is reported when the
+ * next one-second window opens. Recording a rejection is lock-free.
+ */
+@Component
+public class JWTRejectionLogger {
+
+    // Rejections are logged under the category of TokenProvider, which has always logged them
+    private final Logger log = LoggerFactory.getLogger(TokenProvider.class);
+
+    /**
+     * Why a JWT has been rejected by the JWT parser.
+     */
+    public enum Reason {
+        INVALID_SIGNATURE("Invalid JWT signature."),
+        EXPIRED("Expired JWT token."),
+        UNSUPPORTED("Unsupported JWT token."),
+        INVALID("JWT token compact of handler are invalid.");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+    }
+
+    private final ApplicationProperties.Security.RejectionLog properties;
+
+    private final Map<Reason, Counter> counters = new EnumMap<>(Reason.class);
+
+    private final AtomicLong windowStart = new AtomicLong();
+
+    private final AtomicInteger loggedInWindow = new AtomicInteger();
+
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private final AtomicLong logged = new AtomicLong();
+
+    public JWTRejectionLogger(ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this.properties = applicationProperties.getSecurity().getRejectionLog();
+        for (Reason reason : Reason.values()) {
+            counters.put(reason, metricRegistry.counter(
+                MetricRegistry.name("security.jwt.invalid", reason.name().toLowerCase(Locale.ROOT))));
+        }
+    }
+
+    /**
+     * Record a rejected token.
+     *
+     * @param reason why the token was rejected
+     * @param e the exception thrown by the JWT parser
+     */
+    public void reject(Reason reason, Exception e) {
+        reject(reason, e, System.currentTimeMillis());
+    }
+
+    /**
+     * @return true if the rejection has been logged
+     */
+    boolean reject(Reason reason, Exception e, long now) {
+        counters.get(reason).inc();
+        if (!tryAcquire(now)) {
+            suppressed.incrementAndGet();
+            return false;
+        }
+        int sampleRate = properties.getSampleRate();
+        if (sampleRate > 0 && logged.getAndIncrement() % sampleRate == 0) {
+            log.info("{} Sampled trace:", reason.message, e);
+        } else {
+            log.info("{} {}", reason.message, e.getMessage());
+        }
+        return true;
+    }
+
+    private boolean tryAcquire(long now) {
+        long start = windowStart.get();
+        if (now - start >= 1000 && windowStart.compareAndSet(start, now)) {
+            loggedInWindow.set(0);
+            long suppressedInWindow = suppressed.getAndSet(0);
+            if (suppressedInWindow > 0) {
+                log.info("{} invalid JWTs were not logged, see the security.jwt.invalid.* metrics", suppressedInWindow);
+            }
+        }
+        return loggedInWindow.incrementAndGet() <= properties.getMaxPerSecond();
+    }
+}
@@ -1,18 +1,28 @@
 package com.nola.raj.user.security.jwt;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.annotation.PostConstruct;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.nola.raj.user.config.ApplicationProperties;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -28,16 +38,60 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    /**
+     * Name of the cache region holding the authentications of already verified tokens.
+     */
+    public static final String VERIFIED_TOKENS_CACHE = "verifiedTokens";
+
+    /**
+     * Maximum number of distinct role sets whose authorities are shared, beyond which they are built per request.
+     */
+    private static final int MAX_INTERNED_AUTHORITIES = 1024;
+
+    private static final long NO_JWKS_GENERATION = -1;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     private Key key;
 
     private long tokenValidityInMilliseconds;
 
     private long tokenValidityInMillisecondsForRememberMe;
 
+    private Cache<ByteBuffer, VerifiedToken> verifiedTokens;
+
+    private final ConcurrentMap<String, Collection<GrantedAuthority>> authoritiesByClaim = new ConcurrentHashMap<>();
+
     private final JHipsterProperties jHipsterProperties;
 
-    public TokenProvider(JHipsterProperties jHipsterProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    private final JWKSKeyResolver jwksKeyResolver;
+
+    private final JWTRejectionLogger rejectionLogger;
+
+    /**
+     * Tokens without a "kid" header are verified with the HMAC key, the others with the matching JWKS public key.
+     */
+    private final SigningKeyResolver signingKeyResolver = new SigningKeyResolverAdapter() {
+        @Override
+        public Key resolveSigningKey(JwsHeader header, Claims claims) {
+            return header.getKeyId() == null ? key : jwksKeyResolver.resolve(header);
+        }
+    };
+
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties,
+                         JWKSKeyResolver jwksKeyResolver, JWTRejectionLogger rejectionLogger) {
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.jwksKeyResolver = jwksKeyResolver;
+        this.rejectionLogger = rejectionLogger;
     }
 
     @PostConstruct
@@ -58,6 +112,35 @@ public class TokenProvider {
         this.tokenValidityInMillisecondsForRememberMe =
             1000 * jHipsterProperties.getSecurity().getAuthentication().getJwt()
                 .getTokenValidityInSecondsForRememberMe();
+        ApplicationProperties.Cache.Region region = applicationProperties.getCache().getRegion(VERIFIED_TOKENS_CACHE);
+        this.verifiedTokens = region.isEnabled() ? createVerifiedTokensCache(region) : null;
+    }
+
+    /**
+     * Create a cache of verified tokens, where each entry expires with its token.
+     */
+    private static Cache<ByteBuffer, VerifiedToken> createVerifiedTokensCache(ApplicationProperties.Cache.Region region) {
+        long maxTimeToLive = TimeUnit.SECONDS.toNanos(region.getTimeToLiveSeconds());
+        return Caffeine.newBuilder()
+            .maximumSize(region.getMaxEntries())
+            .expireAfter(new Expiry<ByteBuffer, VerifiedToken>() {
+                @Override
+                public long expireAfterCreate(ByteBuffer digest, VerifiedToken verifiedToken, long currentTime) {
+                    long timeToExpiration = TimeUnit.MILLISECONDS.toNanos(verifiedToken.expiration - System.currentTimeMillis());
+                    return Math.max(0, Math.min(timeToExpiration, maxTimeToLive));
+                }
+
+                @Override
+                public long expireAfterUpdate(ByteBuffer digest, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                    return expireAfterCreate(digest, verifiedToken, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(ByteBuffer digest, VerifiedToken verifiedToken, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
     }
 
     public String createToken(Authentication authentication, boolean rememberMe) {
@@ -74,6 +157,7 @@ public class TokenProvider {
         }
 
         return Jwts.builder()
+            .setId(UUID.randomUUID().toString())
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
             .signWith(key, SignatureAlgorithm.HS512)
@@ -83,37 +167,146 @@ public class TokenProvider {
 
     public Authentication getAuthentication(String token) {
         Claims claims = Jwts.parser()
-            .setSigningKey(key)
+            .setSigningKeyResolver(signingKeyResolver)
             .parseClaimsJws(token)
             .getBody();
+        return toAuthentication(claims, token);
+    }
 
-        Collection<? extends GrantedAuthority> authorities =
-            Arrays.stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+    public boolean validateToken(String authToken) {
+        return parseValidToken(authToken) != null;
+    }
+
+    /**
+     * Validate a token and get its authentication, parsing and verifying it only once.
+     * <p>
+     * The principals of valid tokens are cached until the token expires, keyed by the SHA-256 digest of the token,
+     * so a client sending the same token again skips the signature verification. The cache holds neither the tokens
+     * nor the authentications: each call returns a new authentication, holding the token it was given. A token verified with a JWKS key is
+     * verified again once the JWKS has been reloaded, so that a replaced key stops being trusted.
+     *
+     * @param token the JWT
+     * @return the authentication of the token, or empty if the token is not valid
+     */
+    public Optional<Authentication> getValidAuthentication(String token) {
+        if (verifiedTokens == null) {
+            Jws<Claims> jws = parseValidToken(token);
+            return jws != null ? Optional.of(toAuthentication(jws.getBody(), token)) : Optional.empty();
+        }
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        VerifiedToken verifiedToken = verifiedTokens.getIfPresent(digest);
+        if (verifiedToken != null
+            && (verifiedToken.jwksGeneration == NO_JWKS_GENERATION || verifiedToken.jwksGeneration == jwksKeyResolver.getGeneration())) {
+            return Optional.of(toAuthentication(verifiedToken.principal, token));
+        }
+        // Read before the verification, so that a reload during the verification invalidates the entry
+        long jwksGeneration = jwksKeyResolver.getGeneration();
+        Jws<Claims> jws = parseValidToken(token);
+        if (jws == null) {
+            if (verifiedToken != null) {
+                verifiedTokens.invalidate(digest);
+            }
+            return Optional.empty();
+        }
+        Claims claims = jws.getBody();
+        JWTPrincipal principal = toPrincipal(claims);
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, new VerifiedToken(principal, claims.getExpiration().getTime(),
+                jws.getHeader().getKeyId() == null ? NO_JWKS_GENERATION : jwksGeneration));
+        }
+        return Optional.of(toAuthentication(principal, token));
+    }
+
+    /**
+     * @return the cached verification of a token, or null if it is not cached
+     */
+    Object getVerifiedToken(String token) {
+        ByteBuffer digest = ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
+        return verifiedTokens == null ? null : verifiedTokens.getIfPresent(digest);
+    }
 
-        User principal = new User(claims.getSubject(), "", authorities);
+    private Authentication toAuthentication(Claims claims, String token) {
+        return toAuthentication(toPrincipal(claims), token);
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    /**
+     * Create the authentication of a request. It is mutable, so each request has its own, around the shared principal.
+     * The token is the credentials, for the Feign clients relaying it.
+     */
+    private static Authentication toAuthentication(JWTPrincipal principal, String token) {
+        return new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
     }
 
-    public boolean validateToken(String authToken) {
+    private JWTPrincipal toPrincipal(Claims claims) {
+        Object claim = claims.get(AUTHORITIES_KEY);
+        Collection<GrantedAuthority> authorities = claim != null ? getAuthorities(claim.toString()) : Collections.emptyList();
+
+        return new JWTPrincipal(claims.getSubject(), authorities, claims.getId(),
+            claims.getExpiration() != null ? claims.getExpiration().toInstant() : null);
+    }
+
+    /**
+     * Get the authorities of an "auth" claim. Tokens carrying the same claim share the same immutable collection.
+     * Tokens of other issuers may have no such claim, or an empty one: they then have no authorities.
+     */
+    private Collection<GrantedAuthority> getAuthorities(String claim) {
+        Collection<GrantedAuthority> authorities = authoritiesByClaim.get(claim);
+        if (authorities == null) {
+            authorities = Collections.unmodifiableList(Arrays.stream(claim.split(","))
+                .filter(StringUtils::hasText)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList()));
+            if (authoritiesByClaim.size() < MAX_INTERNED_AUTHORITIES) {
+                Collection<GrantedAuthority> interned = authoritiesByClaim.putIfAbsent(claim, authorities);
+                if (interned != null) {
+                    authorities = interned;
+                }
+            }
+        }
+        return authorities;
+    }
+
+    /**
+     * Parse and verify a token, which must have a subject to be the login of its principal.
+     */
+    private Jws<Claims> parseValidToken(String authToken) {
         try {
-            Jwts.parser().setSigningKey(key).parseClaimsJws(authToken);
-            return true;
+            Jws<Claims> jws = Jwts.parser().setSigningKeyResolver(signingKeyResolver).parseClaimsJws(authToken);
+            if (!StringUtils.hasText(jws.getBody().getSubject())) {
+                throw new IllegalArgumentException("JWT has no subject");
+            }
+            return jws;
         } catch (io.jsonwebtoken.security.SecurityException | MalformedJwtException e) {
-            log.info("Invalid JWT signature.");
-            log.trace("Invalid JWT signature trace: {}", e);
+            rejectionLogger.reject(JWTRejectionLogger.Reason.INVALID_SIGNATURE, e);
         } catch (ExpiredJwtException e) {
-            log.info("Expired JWT token.");
-            log.trace("Expired JWT token trace: {}", e);
+            rejectionLogger.reject(JWTRejectionLogger.Reason.EXPIRED, e);
         } catch (UnsupportedJwtException e) {
-            log.info("Unsupported JWT token.");
-            log.trace("Unsupported JWT token trace: {}", e);
+            rejectionLogger.reject(JWTRejectionLogger.Reason.UNSUPPORTED, e);
         } catch (IllegalArgumentException e) {
-            log.info("JWT token compact of handler are invalid.");
-            log.trace("JWT token compact of handler are invalid trace: {}", e);
+            rejectionLogger.reject(JWTRejectionLogger.Reason.INVALID, e);
+        }
+        return null;
+    }
+
+    /**
+     * The immutable principal of a verified token, the time at which the token expires, and the keys it was verified
+     * with. It holds neither the token nor a mutable authentication, which are per request.
+     */
+    private static final class VerifiedToken {
+
+        private final JWTPrincipal principal;
+
+        private final long expiration;
+
+        /**
+         * Generation of the JWKS the token was verified with, or {@link #NO_JWKS_GENERATION} for an HMAC token.
+         */
+        private final long jwksGeneration;
+
+        private VerifiedToken(JWTPrincipal principal, long expiration, long jwksGeneration) {
+            this.principal = principal;
+            this.expiration = expiration;
+            this.jwksGeneration = jwksGeneration;
         }
-        return false;
     }
 }
@@ -0,0 +1,239 @@
+package com.nola.raj.user.service;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.nola.raj.user.config.ApplicationProperties;
+import com.nola.raj.user.domain.RevokedToken;
+import com.nola.raj.user.repository.RevokedTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Service for revoking JWTs before they expire, by their "jti" claim.
+ * <p>
+ * Revocations are persisted in the revoked_token table, and each instance keeps a local copy of the revocations which
+ * have not expired yet: a bloom filter, which answers "not revoked" for almost every token without touching the
+ * exact set, and the exact set itself. Checking a token is lock-free and never queries the database. The local copy
+ * is refreshed incrementally, by loading only the revocations made since the previous refresh.
+ */
+@Service
+public class TokenRevocationService {
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    /**
+     * Revocations made this long before the latest known one are loaded again, in case they were committed late or
+     * by an instance whose clock is behind.
+     */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    private final ApplicationProperties.Security.Revocation properties;
+
+    private final Counter rejectedTokens;
+
+    /**
+     * Expiration of the revoked tokens, by "jti".
+     */
+    private final ConcurrentMap<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Number of tokens still in the bloom filter, but removed from the exact set because they have expired.
+     */
+    private int expiredTokensInFilter;
+
+    private Instant latestRevokedAt;
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  ApplicationProperties applicationProperties, MetricRegistry metricRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.properties = applicationProperties.getSecurity().getRevocation();
+        this.rejectedTokens = metricRegistry.counter("security.jwt.invalid.revoked");
+        this.bloomFilter = new BloomFilter(properties.getExpectedRevocations(), properties.getFalsePositiveRate());
+    }
+
+    /**
+     * Check if a token has been revoked.
+     *
+     * @param jti the "jti" claim of the token, may be null for tokens which cannot be revoked
+     * @return true if the token has been revoked
+     */
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti) || !revokedTokens.containsKey(jti)) {
+            return false;
+        }
+        rejectedTokens.inc();
+        return true;
+    }
+
+    /**
+     * Revoke a token until it expires.
+     *
+     * @param jti the "jti" claim of the token
+     * @param expiresAt the expiration of the token
+     */
+    @Transactional
+    public void revoke(String jti, Instant expiresAt) {
+        log.debug("Request to revoke token : {}", jti);
+        Instant now = Instant.now();
+        if (!expiresAt.isAfter(now)) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken().jti(jti).expiresAt(expiresAt).revokedAt(now));
+        synchronized (this) {
+            add(jti, expiresAt);
+        }
+    }
+
+    /**
+     * Load the tokens revoked since the previous refresh, including by other instances, and forget the expired ones.
+     */
+    @Scheduled(fixedDelayString = "${application.security.revocation.refresh-interval-ms:10000}")
+    public synchronized void refresh() {
+        Instant now = Instant.now();
+        try {
+            List<RevokedToken> loaded = latestRevokedAt == null
+                ? revokedTokenRepository.findAllByExpiresAtAfter(now)
+                : revokedTokenRepository.findAllByRevokedAtGreaterThanEqualAndExpiresAtAfter(latestRevokedAt.minus(REFRESH_OVERLAP), now);
+            Instant latest = latestRevokedAt == null ? now : latestRevokedAt;
+            for (RevokedToken revokedToken : loaded) {
+                add(revokedToken.getJti(), revokedToken.getExpiresAt());
+                if (revokedToken.getRevokedAt().isAfter(latest)) {
+                    latest = revokedToken.getRevokedAt();
+                }
+            }
+            latestRevokedAt = latest;
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh the revoked tokens, keeping the {} known ones: {}", revokedTokens.size(), e.getMessage());
+        }
+        removeExpired(now);
+    }
+
+    /**
+     * Remove the revocations of expired tokens from the database.
+     * <p>
+     * This is scheduled to get fired at the beginning of every hour.
+     */
+    @Scheduled(cron = "0 0 * * * ?")
+    @Transactional
+    public void removeExpiredRevocations() {
+        int removed = revokedTokenRepository.deleteAllExpired(Instant.now());
+        log.debug("Removed {} expired revoked tokens", removed);
+    }
+
+    private void add(String jti, Instant expiresAt) {
+        if (revokedTokens.put(jti, expiresAt) == null) {
+            if (revokedTokens.size() > bloomFilter.expectedInsertions) {
+                rebuildBloomFilter();
+            } else {
+                bloomFilter.put(jti);
+            }
+        }
+    }
+
+    private void removeExpired(Instant now) {
+        for (Iterator<Map.Entry<String, Instant>> it = revokedTokens.entrySet().iterator(); it.hasNext(); ) {
+            if (!it.next().getValue().isAfter(now)) {
+                it.remove();
+                expiredTokensInFilter++;
+            }
+        }
+        if (expiredTokensInFilter > revokedTokens.size()) {
+            rebuildBloomFilter();
+        }
+    }
+
+    /**
+     * Replace the bloom filter by one holding only the current revocations, sized for twice as many.
+     */
+    private void rebuildBloomFilter() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(properties.getExpectedRevocations(), 2L * revokedTokens.size()),
+            properties.getFalsePositiveRate());
+        revokedTokens.keySet().forEach(rebuilt::put);
+        bloomFilter = rebuilt;
+        expiredTokensInFilter = 0;
+    }
+
+    /**
+     * A bloom filter of strings, readable without locking. Writes must be serialized by the caller.
+     */
+    static final class BloomFilter {
+
+        private final long expectedInsertions;
+
+        private final AtomicLongArray bits;
+
+        private final long bitCount;
+
+        private final int hashCount;
+
+        BloomFilter(long expectedInsertions, double falsePositiveRate) {
+            this.expectedInsertions = Math.max(1, expectedInsertions);
+            long optimalBitCount = (long) Math.ceil(-this.expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bits = new AtomicLongArray((int) Math.max(1, (optimalBitCount + 63) / 64));
+            this.bitCount = bits.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) optimalBitCount / this.expectedInsertions * Math.log(2)));
+        }
+
+        void put(String value) {
+            long hash = hash(value);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = index(hash, i);
+                int word = (int) (index >>> 6);
+                bits.set(word, bits.get(word) | (1L << index));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            for (int i = 1; i <= hashCount; i++) {
+                long index = index(hash, i);
+                if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Index of the i-th bit of a value, derived from the two halves of its hash (Kirsch and Mitzenmacher).
+         */
+        private long index(long hash, int i) {
+            long combined = (hash & 0xFFFFFFFFL) + i * (hash >>> 32);
+            return combined % bitCount;
+        }
+
+        /**
+         * 64-bit FNV-1a hash of the characters of a value, with the MurmurHash3 finalizer to spread its bits.
+         */
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            hash *= 0xc4ceb93e5a19c2b9L;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
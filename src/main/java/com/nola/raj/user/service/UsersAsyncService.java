@@ -0,0 +1,116 @@
+package com.nola.raj.user.service;
+
+import com.nola.raj.user.service.dto.UsersCriteria;
+import com.nola.raj.user.service.dto.UsersDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.concurrent.DelegatingSecurityContextExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Asynchronous variant of the {@link UsersService}, whose calls run on the bounded "usersTaskExecutor".
+ * <p>
+ * A request waiting for the database then holds no servlet thread. The security context of the caller is
+ * propagated to the executor, for auditing. When the executor is saturated, calls are rejected with a
+ * {@link org.springframework.core.task.TaskRejectedException} instead of queuing without limit.
+ */
+@Service
+public class UsersAsyncService {
+
+    private final Logger log = LoggerFactory.getLogger(UsersAsyncService.class);
+
+    private final UsersService usersService;
+
+    private final UsersQueryService usersQueryService;
+
+    private final Executor executor;
+
+    private final Executor exportExecutor;
+
+    public UsersAsyncService(UsersService usersService, UsersQueryService usersQueryService,
+                             @Qualifier("usersTaskExecutor") Executor usersTaskExecutor,
+                             @Qualifier("usersExportTaskExecutor") Executor usersExportTaskExecutor) {
+        this.usersService = usersService;
+        this.usersQueryService = usersQueryService;
+        this.executor = new DelegatingSecurityContextExecutor(usersTaskExecutor);
+        this.exportExecutor = new DelegatingSecurityContextExecutor(usersExportTaskExecutor);
+    }
+
+    /**
+     * Save a users.
+     *
+     * @param usersDTO the entity to save
+     * @return the persisted entity
+     */
+    public CompletableFuture<UsersDTO> save(UsersDTO usersDTO) {
+        log.debug("Request to save Users asynchronously : {}", usersDTO);
+        return CompletableFuture.supplyAsync(() -> usersService.save(usersDTO), executor);
+    }
+
+    /**
+     * Get the "id" users.
+     *
+     * @param id the id of the entity
+     * @return the entity
+     */
+    public CompletableFuture<Optional<UsersDTO>> findOne(Long id) {
+        log.debug("Request to get Users asynchronously : {}", id);
+        return CompletableFuture.supplyAsync(() -> usersService.findOne(id), executor);
+    }
+
+    /**
+     * Get the users with the given email, ignoring case.
+     *
+     * @param email the email of the entity
+     * @return the entity
+     */
+    public CompletableFuture<Optional<UsersDTO>> findOneByEmail(String email) {
+        log.debug("Request to get Users by email asynchronously : {}", email);
+        return CompletableFuture.supplyAsync(() -> usersService.findOneByEmail(email), executor);
+    }
+
+    /**
+     * Get a page of the users matching the criteria.
+     *
+     * @param criteria the criteria which the entities should match
+     * @param pageable the pagination information
+     * @return the matching entities
+     */
+    public CompletableFuture<Page<UsersDTO>> findByCriteria(UsersCriteria criteria, Pageable pageable) {
+        log.debug("Request to find Users by criteria asynchronously : {}, page: {}", criteria, pageable);
+        return CompletableFuture.supplyAsync(() -> usersQueryService.findByCriteria(criteria, pageable), executor);
+    }
+
+    /**
+     * Stream all the users to a consumer, in a read-only transaction held by a thread of the "usersExportTaskExecutor".
+     * <p>
+     * The consumer may block, for example on a slow client: rows are only fetched from the database cursor as it
+     * consumes them. As this can last, exports have their own executor, rejecting the exports beyond its size.
+     *
+     * @param consumer the consumer of each entity
+     * @return the number of entities streamed
+     */
+    public CompletableFuture<Long> exportAll(Consumer<UsersDTO> consumer) {
+        log.debug("Request to export all Users asynchronously");
+        return CompletableFuture.supplyAsync(() -> usersService.exportAll(consumer), exportExecutor);
+    }
+
+    /**
+     * Delete the "id" users.
+     *
+     * @param id the id of the entity
+     * @return completed once the entity is deleted
+     */
+    public CompletableFuture<Void> delete(Long id) {
+        log.debug("Request to delete Users asynchronously : {}", id);
+        return CompletableFuture.runAsync(() -> usersService.delete(id), executor);
+    }
+}
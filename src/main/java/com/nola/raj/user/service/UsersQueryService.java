@@ -0,0 +1,95 @@
+package com.nola.raj.user.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.github.jhipster.service.QueryService;
+
+import com.nola.raj.user.domain.Users;
+import com.nola.raj.user.domain.Users_;
+import com.nola.raj.user.repository.UsersRepository;
+import com.nola.raj.user.service.dto.UsersCriteria;
+import com.nola.raj.user.service.dto.UsersDTO;
+import com.nola.raj.user.service.mapper.UsersMapper;
+
+/**
+ * Service for executing complex queries for Users entities in the database.
+ * The main input is a {@link UsersCriteria} which gets converted to {@link Specification},
+ * in a way that all the filters must apply.
+ * It returns a {@link Page} of {@link UsersDTO} which fulfills the criteria, so that the
+ * full table is never loaded in one go.
+ */
+@Service
+@Transactional(readOnly = true)
+public class UsersQueryService extends QueryService<Users> {
+
+    private final Logger log = LoggerFactory.getLogger(UsersQueryService.class);
+
+    private final UsersRepository usersRepository;
+
+    private final UsersMapper usersMapper;
+
+    public UsersQueryService(UsersRepository usersRepository, UsersMapper usersMapper) {
+        this.usersRepository = usersRepository;
+        this.usersMapper = usersMapper;
+    }
+
+    /**
+     * Return a {@link Page} of {@link UsersDTO} which matches the criteria from the database
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @param page The page, which should be returned.
+     * @return the matching entities.
+     */
+    @Transactional(readOnly = true)
+    public Page<UsersDTO> findByCriteria(UsersCriteria criteria, Pageable page) {
+        log.debug("find by criteria : {}, page: {}", criteria, page);
+        final Specification<Users> specification = createSpecification(criteria);
+        return usersRepository.findAll(specification, page)
+            .map(usersMapper::toDto);
+    }
+
+    /**
+     * Return the number of matching entities in the database
+     * @param criteria The object which holds all the filters, which the entities should match.
+     * @return the number of matching entities.
+     */
+    @Transactional(readOnly = true)
+    public long countByCriteria(UsersCriteria criteria) {
+        log.debug("count by criteria : {}", criteria);
+        final Specification<Users> specification = createSpecification(criteria);
+        return usersRepository.count(specification);
+    }
+
+    /**
+     * Function to convert UsersCriteria to a {@link Specification}
+     */
+    private Specification<Users> createSpecification(UsersCriteria criteria) {
+        Specification<Users> specification = Specification.where(null);
+        if (criteria != null) {
+            if (criteria.getId() != null) {
+                specification = specification.and(buildSpecification(criteria.getId(), Users_.id));
+            }
+            if (criteria.getName() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getName(), Users_.name));
+            }
+            if (criteria.getAge() != null) {
+                specification = specification.and(buildRangeSpecification(criteria.getAge(), Users_.age));
+            }
+            if (criteria.getGender() != null) {
+                specification = specification.and(buildSpecification(criteria.getGender(), Users_.gender));
+            }
+            if (criteria.getEmail() != null) {
+                specification = specification.and(buildStringSpecification(criteria.getEmail(), Users_.email));
+            }
+            if (criteria.getCountry() != null) {
+                specification = specification.and(buildSpecification(criteria.getCountry(), Users_.country));
+            }
+        }
+        return specification;
+    }
+}
@@ -1,30 +1,85 @@
 package com.nola.raj.user.service;
 
+import com.nola.raj.user.service.dto.UsersBulkResultDTO;
+import com.nola.raj.user.service.dto.UsersCursor;
 import com.nola.raj.user.service.dto.UsersDTO;
+import com.nola.raj.user.service.dto.UsersStatsDTO;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Service Interface for managing Users.
  */
 public interface UsersService {
 
+    /**
+     * Name of the cache holding the users by id, as returned by {@link #findOne(Long)}.
+     * Cached instances are shared and must not be modified.
+     */
+    String USERS_BY_ID_CACHE = "usersById";
+
     /**
      * Save a users.
      *
      * @param usersDTO the entity to save
      * @return the persisted entity
+     * @throws com.nola.raj.user.web.rest.errors.EmailAlreadyUsedException if the unique email index rejects the entity
      */
     UsersDTO save(UsersDTO usersDTO);
 
+    /**
+     * Create many users at once. Invalid items and emails already in use are rejected, the others are inserted in JDBC batches.
+     *
+     * @param usersDTOs the entities to create
+     * @return the result of each item, in the order of the input
+     */
+    List<UsersBulkResultDTO> createAll(List<UsersDTO> usersDTOs);
+
+    /**
+     * Update many users at once. Invalid or unknown items are rejected, the others are updated in JDBC batches.
+     *
+     * @param usersDTOs the entities to update
+     * @return the result of each item, in the order of the input
+     */
+    List<UsersBulkResultDTO> updateAll(List<UsersDTO> usersDTOs);
+
     /**
      * Get all the users.
      *
+     * @param pageable the pagination information
      * @return the list of entities
      */
-    List<UsersDTO> findAll();
+    Page<UsersDTO> findAll(Pageable pageable);
+
+    /**
+     * Get the users following the given cursor, without counting the whole table.
+     *
+     * @param cursor the position after which users are read
+     * @param size the maximum number of users to return
+     * @return the slice of entities
+     */
+    Slice<UsersDTO> findAllAfter(UsersCursor cursor, int size);
 
+    /**
+     * Stream all the users to the given consumer, one at a time and ordered by id.
+     *
+     * @param consumer the consumer of each entity
+     * @return the number of entities streamed
+     */
+    long exportAll(Consumer<UsersDTO> consumer);
+
+    /**
+     * Count the users by country, gender and age bucket.
+     *
+     * @return the aggregates
+     */
+    UsersStatsDTO getStats();
 
     /**
      * Get the "id" users.
@@ -34,6 +89,14 @@ public interface UsersService {
      */
     Optional<UsersDTO> findOne(Long id);
 
+    /**
+     * Get the users with the given email, ignoring case.
+     *
+     * @param email the email of the entity
+     * @return the entity
+     */
+    Optional<UsersDTO> findOneByEmail(String email);
+
     /**
      * Delete the "id" users.
      *
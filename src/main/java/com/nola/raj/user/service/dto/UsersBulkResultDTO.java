@@ -0,0 +1,99 @@
+package com.nola.raj.user.service.dto;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The outcome of one item of a bulk create or update of Users.
+ */
+public class UsersBulkResultDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        CREATED, UPDATED, REJECTED
+    }
+
+    private int index;
+
+    private Long id;
+
+    private Status status;
+
+    private List<String> errors = Collections.emptyList();
+
+    public static UsersBulkResultDTO of(int index, Long id, Status status) {
+        UsersBulkResultDTO result = new UsersBulkResultDTO();
+        result.setIndex(index);
+        result.setId(id);
+        result.setStatus(status);
+        return result;
+    }
+
+    public static UsersBulkResultDTO rejected(int index, Long id, List<String> errors) {
+        UsersBulkResultDTO result = of(index, id, Status.REJECTED);
+        result.setErrors(errors);
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UsersBulkResultDTO that = (UsersBulkResultDTO) o;
+        return index == that.index && Objects.equals(id, that.id) && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, id, status);
+    }
+
+    @Override
+    public String toString() {
+        return "UsersBulkResultDTO{" +
+            "index=" + index +
+            ", id=" + id +
+            ", status=" + status +
+            ", errors=" + errors +
+            "}";
+    }
+}
@@ -0,0 +1,138 @@
+package com.nola.raj.user.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+import com.nola.raj.user.domain.Country;
+import com.nola.raj.user.domain.enumeration.Gender;
+import io.github.jhipster.service.filter.Filter;
+import io.github.jhipster.service.filter.IntegerFilter;
+import io.github.jhipster.service.filter.LongFilter;
+import io.github.jhipster.service.filter.StringFilter;
+
+/**
+ * Criteria class for the Users entity. This class is used in UsersResource to
+ * receive all the possible filtering options from the Http GET request parameters.
+ * For example the following could be a valid requests:
+ * <code> /users?id.greaterThan=5&amp;age.lessThan=30&amp;country.equals=FR</code>
+ * As Spring is unable to properly convert the types, unless specific {@link Filter} class are used, we need to use
+ * fix type specific filters.
+ */
+public class UsersCriteria implements Serializable {
+    /**
+     * Class for filtering Gender
+     */
+    public static class GenderFilter extends Filter<Gender> {
+    }
+
+    /**
+     * Class for filtering Country
+     */
+    public static class CountryFilter extends Filter<Country> {
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private LongFilter id;
+
+    private StringFilter name;
+
+    private IntegerFilter age;
+
+    private GenderFilter gender;
+
+    private StringFilter email;
+
+    private CountryFilter country;
+
+    public LongFilter getId() {
+        return id;
+    }
+
+    public void setId(LongFilter id) {
+        this.id = id;
+    }
+
+    public StringFilter getName() {
+        return name;
+    }
+
+    public void setName(StringFilter name) {
+        this.name = name;
+    }
+
+    public IntegerFilter getAge() {
+        return age;
+    }
+
+    public void setAge(IntegerFilter age) {
+        this.age = age;
+    }
+
+    public GenderFilter getGender() {
+        return gender;
+    }
+
+    public void setGender(GenderFilter gender) {
+        this.gender = gender;
+    }
+
+    public StringFilter getEmail() {
+        return email;
+    }
+
+    public void setEmail(StringFilter email) {
+        this.email = email;
+    }
+
+    public CountryFilter getCountry() {
+        return country;
+    }
+
+    public void setCountry(CountryFilter country) {
+        this.country = country;
+    }
+
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final UsersCriteria that = (UsersCriteria) o;
+        return
+            Objects.equals(id, that.id) &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(age, that.age) &&
+            Objects.equals(gender, that.gender) &&
+            Objects.equals(email, that.email) &&
+            Objects.equals(country, that.country);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+        id,
+        name,
+        age,
+        gender,
+        email,
+        country
+        );
+    }
+
+    @Override
+    public String toString() {
+        return "UsersCriteria{" +
+                (id != null ? "id=" + id + ", " : "") +
+                (name != null ? "name=" + name + ", " : "") +
+                (age != null ? "age=" + age + ", " : "") +
+                (gender != null ? "gender=" + gender + ", " : "") +
+                (email != null ? "email=" + email + ", " : "") +
+                (country != null ? "country=" + country + ", " : "") +
+            "}";
+    }
+
+}
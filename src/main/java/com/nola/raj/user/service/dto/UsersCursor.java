@@ -0,0 +1,136 @@
+package com.nola.raj.user.service.dto;
+
+import com.nola.raj.user.domain.Country;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * An opaque position in a keyset (seek) traversal of the Users table.
+ * <p>
+ * A cursor remembers the sort key of the last row of a page, so the next page is read with a
+ * {@code WHERE key > :last} predicate instead of an {@code OFFSET}, and no {@code count(*)} is needed.
+ * It is exchanged with clients as an URL-safe Base64 string.
+ */
+public final class UsersCursor implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The sort keys supported by the seek queries of {@link com.nola.raj.user.repository.UsersRepository}.
+     */
+    public enum Key {
+        ID, COUNTRY
+    }
+
+    private static final char SEPARATOR = ':';
+
+    private final Key key;
+
+    private final Long id;
+
+    private final String country;
+
+    private UsersCursor(Key key, Long id, String country) {
+        this.key = key;
+        this.id = id;
+        this.country = country;
+    }
+
+    /**
+     * Cursor pointing before the first row for the given key.
+     */
+    public static UsersCursor first(Key key) {
+        return new UsersCursor(key, null, null);
+    }
+
+    /**
+     * Cursor pointing right after the given row.
+     */
+    public static UsersCursor after(Key key, UsersDTO last) {
+        return new UsersCursor(key, last.getId(), key == Key.COUNTRY ? last.getCountry() : null);
+    }
+
+    /**
+     * Decode a cursor previously produced by {@link #encode()}.
+     *
+     * @param value the opaque cursor
+     * @return the decoded cursor
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static UsersCursor decode(String value) {
+        String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        String[] parts = raw.split(String.valueOf(SEPARATOR), 3);
+        try {
+            Key key = Key.values()[Integer.parseInt(parts[0])];
+            Long id = Long.valueOf(parts[1]);
+            if (key == Key.COUNTRY) {
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException("Missing country in cursor");
+                }
+                if (!Country.isValid(parts[2])) {
+                    throw new IllegalArgumentException("Invalid country in cursor");
+                }
+                return new UsersCursor(key, id, parts[2]);
+            }
+            return new UsersCursor(key, id, null);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Malformed cursor", e);
+        }
+    }
+
+    /**
+     * @return the opaque representation of this cursor
+     */
+    public String encode() {
+        StringBuilder raw = new StringBuilder().append(key.ordinal()).append(SEPARATOR).append(id);
+        if (key == Key.COUNTRY) {
+            raw.append(SEPARATOR).append(country);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isFirst() {
+        return id == null;
+    }
+
+    public Key getKey() {
+        return key;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UsersCursor that = (UsersCursor) o;
+        return key == that.key && Objects.equals(id, that.id) && Objects.equals(country, that.country);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, id, country);
+    }
+
+    @Override
+    public String toString() {
+        return "UsersCursor{" +
+            "key=" + key +
+            ", id=" + id +
+            ", country='" + country + "'" +
+            "}";
+    }
+}
@@ -1,5 +1,7 @@
 package com.nola.raj.user.service.dto;
 
+import com.nola.raj.user.service.validation.CountryCode;
+
 import javax.validation.constraints.*;
 import java.io.Serializable;
 import java.util.Objects;
@@ -17,12 +19,14 @@ public class UsersDTO implements Serializable {
     private Integer age;
 
     @NotNull
+    @Pattern(regexp = "MALE|FEMALE|OTHER", flags = Pattern.Flag.CASE_INSENSITIVE)
     private String gender;
 
     @NotNull
     private String email;
 
     @NotNull
+    @CountryCode
     private String country;
 
     public Long getId() {
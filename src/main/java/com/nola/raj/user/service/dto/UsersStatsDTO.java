@@ -0,0 +1,111 @@
+package com.nola.raj.user.service.dto;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Aggregated counts of Users by country, gender and age.
+ */
+public class UsersStatsDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private long total;
+
+    private Map<String, Long> countries = Collections.emptyMap();
+
+    private Map<String, Long> genders = Collections.emptyMap();
+
+    private Map<String, Map<String, Long>> countriesAndGenders = Collections.emptyMap();
+
+    private int ageBucketWidth;
+
+    private Map<Integer, Long> ages = Collections.emptyMap();
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getCountries() {
+        return countries;
+    }
+
+    public void setCountries(Map<String, Long> countries) {
+        this.countries = countries;
+    }
+
+    public Map<String, Long> getGenders() {
+        return genders;
+    }
+
+    public void setGenders(Map<String, Long> genders) {
+        this.genders = genders;
+    }
+
+    public Map<String, Map<String, Long>> getCountriesAndGenders() {
+        return countriesAndGenders;
+    }
+
+    public void setCountriesAndGenders(Map<String, Map<String, Long>> countriesAndGenders) {
+        this.countriesAndGenders = countriesAndGenders;
+    }
+
+    public int getAgeBucketWidth() {
+        return ageBucketWidth;
+    }
+
+    public void setAgeBucketWidth(int ageBucketWidth) {
+        this.ageBucketWidth = ageBucketWidth;
+    }
+
+    /**
+     * @return the number of users by age bucket, keyed by the first age of the bucket
+     */
+    public Map<Integer, Long> getAges() {
+        return ages;
+    }
+
+    public void setAges(Map<Integer, Long> ages) {
+        this.ages = ages;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        UsersStatsDTO usersStatsDTO = (UsersStatsDTO) o;
+        return total == usersStatsDTO.total &&
+            ageBucketWidth == usersStatsDTO.ageBucketWidth &&
+            Objects.equals(countries, usersStatsDTO.countries) &&
+            Objects.equals(genders, usersStatsDTO.genders) &&
+            Objects.equals(countriesAndGenders, usersStatsDTO.countriesAndGenders) &&
+            Objects.equals(ages, usersStatsDTO.ages);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(total, countries, genders, countriesAndGenders, ageBucketWidth, ages);
+    }
+
+    @Override
+    public String toString() {
+        return "UsersStatsDTO{" +
+            "total=" + getTotal() +
+            ", countries=" + getCountries() +
+            ", genders=" + getGenders() +
+            ", countriesAndGenders=" + getCountriesAndGenders() +
+            ", ageBucketWidth=" + getAgeBucketWidth() +
+            ", ages=" + getAges() +
+            "}";
+    }
+}
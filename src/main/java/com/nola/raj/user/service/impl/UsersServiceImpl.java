@@ -1,20 +1,49 @@
 package com.nola.raj.user.service.impl;
 
+import com.nola.raj.user.config.ReadReplicaRoutingDataSource;
 import com.nola.raj.user.service.UsersService;
+import com.nola.raj.user.domain.Country;
 import com.nola.raj.user.domain.Users;
 import com.nola.raj.user.repository.UsersRepository;
+import com.nola.raj.user.service.dto.UsersBulkResultDTO;
+import com.nola.raj.user.service.dto.UsersCursor;
 import com.nola.raj.user.service.dto.UsersDTO;
+import com.nola.raj.user.service.dto.UsersStatsDTO;
 import com.nola.raj.user.service.mapper.UsersMapper;
+import com.nola.raj.user.web.rest.errors.EmailAlreadyUsedException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.LinkedList;
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service Implementation for managing Users.
@@ -25,13 +54,35 @@ public class UsersServiceImpl implements UsersService {
 
     private final Logger log = LoggerFactory.getLogger(UsersServiceImpl.class);
 
+    /**
+     * Number of streamed entities after which the persistence context is cleared during an export.
+     */
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
+    /**
+     * Number of entities written between two flushes during a bulk operation, matching hibernate.jdbc.batch_size.
+     */
+    private static final int BULK_BATCH_SIZE = 50;
+
+    /**
+     * Name of the case-insensitive unique index on the email, see the Liquibase changelog.
+     */
+    private static final String EMAIL_UNIQUE_INDEX = "ux_users_email";
+
     private final UsersRepository usersRepository;
 
     private final UsersMapper usersMapper;
 
-    public UsersServiceImpl(UsersRepository usersRepository, UsersMapper usersMapper) {
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    public UsersServiceImpl(UsersRepository usersRepository, UsersMapper usersMapper, EntityManager entityManager,
+                            Validator validator) {
         this.usersRepository = usersRepository;
         this.usersMapper = usersMapper;
+        this.entityManager = entityManager;
+        this.validator = validator;
     }
 
     /**
@@ -39,42 +90,300 @@ public class UsersServiceImpl implements UsersService {
      *
      * @param usersDTO the entity to save
      * @return the persisted entity
+     * @throws com.nola.raj.user.web.rest.errors.EmailAlreadyUsedException if the unique email index rejects the entity
      */
     @Override
+    @CacheEvict(cacheNames = USERS_BY_ID_CACHE, key = "#result.id")
     public UsersDTO save(UsersDTO usersDTO) {
         log.debug("Request to save Users : {}", usersDTO);
 
         Users users = usersMapper.toEntity(usersDTO);
-        users = usersRepository.save(users);
+        try {
+            users = usersRepository.saveAndFlush(users);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new EmailAlreadyUsedException();
+            }
+            throw e;
+        }
         return usersMapper.toDto(users);
     }
 
+    /**
+     * @return true if the violated constraint is the unique email index, which is the final arbiter when two
+     * requests check the same free email concurrently
+     */
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        if (e.getCause() instanceof ConstraintViolationException) {
+            String constraintName = ((ConstraintViolationException) e.getCause()).getConstraintName();
+            return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(EMAIL_UNIQUE_INDEX);
+        }
+        return false;
+    }
+
+    /**
+     * Create many users at once. Emails already in use, in the table or earlier in the list, are looked up
+     * with one query per batch and rejected before reaching the unique index.
+     *
+     * @param usersDTOs the entities to create
+     * @return the result of each item, in the order of the input
+     */
+    @Override
+    @CacheEvict(cacheNames = USERS_BY_ID_CACHE, allEntries = true)
+    public List<UsersBulkResultDTO> createAll(List<UsersDTO> usersDTOs) {
+        log.debug("Request to create {} Users", usersDTOs.size());
+        List<UsersBulkResultDTO> results = new ArrayList<>(usersDTOs.size());
+        Map<String, Long> emailsInUse = findEmailsInUse(usersDTOs);
+        for (int i = 0; i < usersDTOs.size(); i++) {
+            UsersDTO usersDTO = usersDTOs.get(i);
+            List<String> errors = validate(usersDTO);
+            if (usersDTO.getId() != null) {
+                errors.add("id: a new users cannot already have an ID");
+            }
+            if (usersDTO.getEmail() != null && emailsInUse.containsKey(normalizeEmail(usersDTO.getEmail()))) {
+                errors.add("email: email is already in use");
+            }
+            if (!errors.isEmpty()) {
+                results.add(UsersBulkResultDTO.rejected(i, usersDTO.getId(), errors));
+                continue;
+            }
+            Users users = usersRepository.save(usersMapper.toEntity(usersDTO));
+            emailsInUse.put(normalizeEmail(users.getEmail()), users.getId());
+            results.add(UsersBulkResultDTO.of(i, users.getId(), UsersBulkResultDTO.Status.CREATED));
+            if ((i + 1) % BULK_BATCH_SIZE == 0) {
+                flushAndClear();
+            }
+        }
+        flushAndClear();
+        return results;
+    }
+
+    /**
+     * Update many users at once. Existing entities are loaded one batch at a time with a single query.
+     *
+     * @param usersDTOs the entities to update
+     * @return the result of each item, in the order of the input
+     */
+    @Override
+    @CacheEvict(cacheNames = USERS_BY_ID_CACHE, allEntries = true)
+    public List<UsersBulkResultDTO> updateAll(List<UsersDTO> usersDTOs) {
+        log.debug("Request to update {} Users", usersDTOs.size());
+        List<UsersBulkResultDTO> results = new ArrayList<>(usersDTOs.size());
+        Map<String, Long> emailsInUse = findEmailsInUse(usersDTOs);
+        for (int from = 0; from < usersDTOs.size(); from += BULK_BATCH_SIZE) {
+            List<UsersDTO> batch = usersDTOs.subList(from, Math.min(from + BULK_BATCH_SIZE, usersDTOs.size()));
+            Map<Long, Users> existing = usersRepository.findAllById(batch.stream()
+                    .map(UsersDTO::getId)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Users::getId, Function.identity()));
+            for (int i = 0; i < batch.size(); i++) {
+                UsersDTO usersDTO = batch.get(i);
+                List<String> errors = validate(usersDTO);
+                Users users = null;
+                if (usersDTO.getId() == null) {
+                    errors.add("id: invalid id");
+                } else {
+                    users = existing.get(usersDTO.getId());
+                    if (users == null) {
+                        errors.add("id: no users with this ID");
+                    }
+                }
+                if (usersDTO.getEmail() != null) {
+                    Long owner = emailsInUse.get(normalizeEmail(usersDTO.getEmail()));
+                    if (owner != null && !owner.equals(usersDTO.getId())) {
+                        errors.add("email: email is already in use");
+                    }
+                }
+                if (!errors.isEmpty()) {
+                    results.add(UsersBulkResultDTO.rejected(from + i, usersDTO.getId(), errors));
+                    continue;
+                }
+                usersMapper.updateEntity(usersDTO, users);
+                emailsInUse.put(normalizeEmail(users.getEmail()), users.getId());
+                results.add(UsersBulkResultDTO.of(from + i, users.getId(), UsersBulkResultDTO.Status.UPDATED));
+            }
+            flushAndClear();
+        }
+        return results;
+    }
+
+    private List<String> validate(UsersDTO usersDTO) {
+        List<String> errors = new ArrayList<>();
+        for (ConstraintViolation<UsersDTO> violation : validator.validate(usersDTO)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Find the owners of the emails of the given users, keyed by normalized email.
+     */
+    private Map<String, Long> findEmailsInUse(List<UsersDTO> usersDTOs) {
+        Map<String, Long> emailsInUse = new HashMap<>();
+        for (int from = 0; from < usersDTOs.size(); from += BULK_BATCH_SIZE) {
+            Set<String> emails = usersDTOs.subList(from, Math.min(from + BULK_BATCH_SIZE, usersDTOs.size())).stream()
+                .map(UsersDTO::getEmail)
+                .filter(Objects::nonNull)
+                .map(this::normalizeEmail)
+                .collect(Collectors.toSet());
+            if (!emails.isEmpty()) {
+                usersRepository.findAllByUpperCaseEmailIn(emails)
+                    .forEach(users -> emailsInUse.put(normalizeEmail(users.getEmail()), users.getId()));
+            }
+        }
+        return emailsInUse;
+    }
+
+    /**
+     * Normalize an email the way the unique index of the users table does.
+     */
+    private String normalizeEmail(String email) {
+        return email.toUpperCase(Locale.ROOT);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
     /**
      * Get all the users.
      *
+     * @param pageable the pagination information
      * @return the list of entities
      */
     @Override
     @Transactional(readOnly = true)
-    public List<UsersDTO> findAll() {
+    public Page<UsersDTO> findAll(Pageable pageable) {
         log.debug("Request to get all Users");
-        return usersRepository.findAll().stream()
-            .map(usersMapper::toDto)
-            .collect(Collectors.toCollection(LinkedList::new));
+        return usersRepository.findAll(pageable)
+            .map(usersMapper::toDto);
+    }
+
+    /**
+     * Get the users following the given cursor, using the seek queries of the repository.
+     *
+     * @param cursor the position after which users are read
+     * @param size the maximum number of users to return
+     * @return the slice of entities
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<UsersDTO> findAllAfter(UsersCursor cursor, int size) {
+        log.debug("Request to get Users after : {}", cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Users> slice;
+        if (cursor.getKey() == UsersCursor.Key.COUNTRY) {
+            slice = cursor.isFirst() ? usersRepository.findAllByOrderByCountryAscIdAsc(limit)
+                : usersRepository.findAfterCountryAndId(Country.of(cursor.getCountry()), cursor.getId(), limit);
+        } else {
+            slice = cursor.isFirst() ? usersRepository.findAllByOrderByIdAsc(limit)
+                : usersRepository.findByIdGreaterThanOrderByIdAsc(cursor.getId(), limit);
+        }
+        return slice.map(usersMapper::toDto);
+    }
+
+    /**
+     * Stream all the users to the given consumer. Rows are fetched by JDBC batches and the persistence
+     * context is cleared regularly, so memory use does not depend on the size of the table.
+     * <p>
+     * The second-level cache is ignored for the whole export, as the entities are only loaded once the stream is
+     * opened: the "org.hibernate.cacheMode" query hint would not apply to them, and they would evict the entries of
+     * the bounded Users region.
+     *
+     * @param consumer the consumer of each entity
+     * @return the number of entities streamed
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportAll(Consumer<UsersDTO> consumer) {
+        log.debug("Request to export all Users");
+        long count = 0;
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        try (Stream<Users> stream = usersRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Users> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(usersMapper.toDto(iterator.next()));
+                if (++count % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            session.setCacheMode(cacheMode);
+        }
+        return count;
     }
 
+    /**
+     * Count the users by country, gender and age bucket. The grouping is done by the database, using the
+     * (country, gender) and (age) indexes, so only the aggregates are transferred.
+     *
+     * @return the aggregates
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public UsersStatsDTO getStats() {
+        log.debug("Request to get Users statistics");
+        UsersStatsDTO stats = new UsersStatsDTO();
+        Map<String, Long> countries = new TreeMap<>();
+        long total = 0;
+        for (UsersRepository.CountByCountry count : usersRepository.countByCountry()) {
+            countries.put(count.getCountry().getCode(), count.getTotal());
+            total += count.getTotal();
+        }
+        stats.setTotal(total);
+        stats.setCountries(countries);
+        Map<String, Long> genders = new TreeMap<>();
+        for (UsersRepository.CountByGender count : usersRepository.countByGender()) {
+            genders.put(count.getGender().name(), count.getTotal());
+        }
+        stats.setGenders(genders);
+        Map<String, Map<String, Long>> countriesAndGenders = new TreeMap<>();
+        for (UsersRepository.CountByCountryAndGender count : usersRepository.countByCountryAndGender()) {
+            countriesAndGenders.computeIfAbsent(count.getCountry().getCode(), country -> new TreeMap<>())
+                .put(count.getGender().name(), count.getTotal());
+        }
+        stats.setCountriesAndGenders(countriesAndGenders);
+        Map<Integer, Long> ages = new TreeMap<>();
+        for (UsersRepository.CountByAgeBucket count : usersRepository.countByAgeBucket()) {
+            ages.put(count.getBucket(), count.getTotal());
+        }
+        stats.setAgeBucketWidth(UsersRepository.AGE_BUCKET_WIDTH);
+        stats.setAges(ages);
+        return stats;
+    }
 
     /**
-     * Get one users by id.
+     * Get one users by id. Results are cached, and concurrent misses on the same id trigger a single load.
      *
      * @param id the id of the entity
      * @return the entity
      */
     @Override
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = USERS_BY_ID_CACHE, sync = true)
     public Optional<UsersDTO> findOne(Long id) {
         log.debug("Request to get Users : {}", id);
-        return usersRepository.findById(id)
+        // Cached, so read on the primary: a lagging replica could cache the users as it was before its last update
+        return ReadReplicaRoutingDataSource.readFromPrimary(() -> usersRepository.findById(id)
+            .map(usersMapper::toDto));
+    }
+
+    /**
+     * Get one users by email, using the case-insensitive unique index on the email column.
+     *
+     * @param email the email of the entity
+     * @return the entity
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UsersDTO> findOneByEmail(String email) {
+        log.debug("Request to get Users by email : {}", email);
+        return usersRepository.findOneByEmailIgnoreCase(email)
             .map(usersMapper::toDto);
     }
 
@@ -84,6 +393,7 @@ public class UsersServiceImpl implements UsersService {
      * @param id the id of the entity
      */
     @Override
+    @CacheEvict(cacheNames = USERS_BY_ID_CACHE)
     public void delete(Long id) {
         log.debug("Request to delete Users : {}", id);
         usersRepository.deleteById(id);
@@ -1,6 +1,7 @@
 package com.nola.raj.user.service.mapper;
 
 import com.nola.raj.user.domain.*;
+import com.nola.raj.user.domain.enumeration.Gender;
 import com.nola.raj.user.service.dto.UsersDTO;
 
 import org.mapstruct.*;
@@ -11,7 +12,23 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring", uses = {})
 public interface UsersMapper extends EntityMapper<UsersDTO, Users> {
 
+    void updateEntity(UsersDTO dto, @MappingTarget Users entity);
 
+    default Gender genderFromValue(String value) {
+        return value != null ? Gender.fromValue(value) : null;
+    }
+
+    default String genderToValue(Gender gender) {
+        return gender != null ? gender.name() : null;
+    }
+
+    default Country countryFromCode(String code) {
+        return code != null ? Country.of(code) : null;
+    }
+
+    default String countryToCode(Country country) {
+        return country != null ? country.getCode() : null;
+    }
 
     default Users fromId(Long id) {
         if (id == null) {
@@ -0,0 +1,28 @@
+package com.nola.raj.user.service.validation;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The annotated string must be an ISO 3166-1 alpha-2 country code, in any case. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = CountryCodeValidator.class)
+@Target({FIELD, METHOD, PARAMETER})
+@Retention(RUNTIME)
+public @interface CountryCode {
+
+    String message() default "must be an ISO 3166-1 alpha-2 country code";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,17 @@
+package com.nola.raj.user.service.validation;
+
+import com.nola.raj.user.domain.Country;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validator of the {@link CountryCode} constraint.
+ */
+public class CountryCodeValidator implements ConstraintValidator<CountryCode, String> {
+
+    @Override
+    public boolean isValid(String value, ConstraintValidatorContext context) {
+        return value == null || Country.isValid(value);
+    }
+}
@@ -1,6 +1,9 @@
 package com.nola.raj.user.web.rest;
 
+import com.nola.raj.user.aop.logging.LoggingAspect;
+import com.nola.raj.user.web.rest.errors.BadRequestAlertException;
 import com.nola.raj.user.web.rest.vm.LoggerVM;
+import com.nola.raj.user.web.rest.vm.TracingVM;
 
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.LoggerContext;
@@ -10,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 /**
@@ -19,6 +23,12 @@ import java.util.stream.Collectors;
 @RequestMapping("/management")
 public class LogsResource {
 
+    private final Optional<LoggingAspect> loggingAspect;
+
+    public LogsResource(Optional<LoggingAspect> loggingAspect) {
+        this.loggingAspect = loggingAspect;
+    }
+
     @GetMapping("/logs")
     @Timed
     public List<LoggerVM> getList() {
@@ -36,4 +46,24 @@ public class LogsResource {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
         context.getLogger(jsonLogger.getName()).setLevel(Level.valueOf(jsonLogger.getLevel()));
     }
+
+    @GetMapping("/logs/tracing")
+    @Timed
+    public TracingVM getTracing() {
+        return new TracingVM(loggingAspect.isPresent(), loggingAspect.map(LoggingAspect::isTracing).orElse(false));
+    }
+
+    /**
+     * PUT  /logs/tracing : Switch the tracing of calls by the LoggingAspect off or on.
+     *
+     * @throws BadRequestAlertException 400 (Bad Request) if the aspect is not woven, as "application.tracing.enabled" is false
+     */
+    @PutMapping("/logs/tracing")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Timed
+    public void changeTracing(@RequestBody TracingVM tracing) {
+        LoggingAspect aspect = loggingAspect.orElseThrow(() -> new BadRequestAlertException(
+            "Tracing is not available, as application.tracing.enabled is false", "logs", "tracingnotwoven"));
+        aspect.setTracing(tracing.isEnabled());
+    }
 }
@@ -0,0 +1,69 @@
+package com.nola.raj.user.web.rest;
+
+import com.codahale.metrics.annotation.Timed;
+import com.nola.raj.user.security.AuthoritiesConstants;
+import com.nola.raj.user.security.jwt.JWTPrincipal;
+import com.nola.raj.user.service.TokenRevocationService;
+import com.nola.raj.user.web.rest.errors.BadRequestAlertException;
+import com.nola.raj.user.web.rest.vm.RevokedTokenVM;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+/**
+ * REST controller for revoking JWTs before they expire.
+ */
+@RestController
+@RequestMapping("/api")
+public class TokenRevocationResource {
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationResource.class);
+
+    private static final String ENTITY_NAME = "userSvcRevokedToken";
+
+    private final TokenRevocationService tokenRevocationService;
+
+    public TokenRevocationResource(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    /**
+     * POST  /revoked-tokens : Revoke a token by its "jti" claim.
+     *
+     * @param revokedTokenVM the "jti" and the expiration of the token
+     */
+    @PostMapping("/revoked-tokens")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Timed
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public void revokeToken(@Valid @RequestBody RevokedTokenVM revokedTokenVM) {
+        log.debug("REST request to revoke token : {}", revokedTokenVM);
+        tokenRevocationService.revoke(revokedTokenVM.getJti(), revokedTokenVM.getExpiresAt());
+    }
+
+    /**
+     * POST  /revoked-tokens/current : Revoke the token authenticating the current request, e.g. on logout.
+     *
+     * @throws BadRequestAlertException 400 (Bad Request) if the request is not authenticated by a revocable token
+     */
+    @PostMapping("/revoked-tokens/current")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @Timed
+    public void revokeCurrentToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Object principal = authentication != null ? authentication.getPrincipal() : null;
+        if (!(principal instanceof JWTPrincipal) || ((JWTPrincipal) principal).getTokenId() == null
+            || ((JWTPrincipal) principal).getTokenExpiration() == null) {
+            throw new BadRequestAlertException("The request is not authenticated by a revocable token", ENTITY_NAME, "notrevocable");
+        }
+        JWTPrincipal jwtPrincipal = (JWTPrincipal) principal;
+        log.debug("REST request to revoke the current token of : {}", jwtPrincipal.getUsername());
+        tokenRevocationService.revoke(jwtPrincipal.getTokenId(), jwtPrincipal.getTokenExpiration());
+    }
+}
@@ -1,25 +1,51 @@
 package com.nola.raj.user.web.rest;
 
 import com.codahale.metrics.annotation.Timed;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.nola.raj.user.config.ApplicationProperties;
+import com.nola.raj.user.service.UsersAsyncService;
 import com.nola.raj.user.service.UsersService;
 import com.nola.raj.user.web.rest.errors.BadRequestAlertException;
+import com.nola.raj.user.web.rest.errors.EmailAlreadyUsedException;
 import com.nola.raj.user.web.rest.util.HeaderUtil;
+import com.nola.raj.user.web.rest.util.PaginationUtil;
 import com.nola.raj.user.service.dto.UsersDTO;
+import com.nola.raj.user.service.dto.UsersBulkResultDTO;
+import com.nola.raj.user.service.dto.UsersCriteria;
+import com.nola.raj.user.service.dto.UsersCursor;
+import com.nola.raj.user.service.dto.UsersStatsDTO;
+import com.nola.raj.user.service.UsersQueryService;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
 import javax.validation.Valid;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.URISyntaxException;
 
 import java.util.List;
-import java.util.Optional;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * REST controller for managing Users.
+ * <p>
+ * The single users endpoints and the listing return a {@link CompletableFuture} completed on the executor of the
+ * {@link UsersAsyncService}, and the export is streamed from its export executor, so the servlet thread is released
+ * while the database is called. These endpoints are not {@link Timed}, which would only measure the submission: the
+ * {@code http.server.requests} timers time them until the response is completed.
  */
 @RestController
 @RequestMapping("/api")
@@ -29,30 +55,53 @@ public class UsersResource {
 
     private static final String ENTITY_NAME = "userSvcUsers";
 
+    private static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final MediaType NDJSON = MediaType.parseMediaType(NDJSON_VALUE);
+
+    private static final int EXPORT_CHUNK_SIZE = 16 * 1024;
+
     private final UsersService usersService;
 
-    public UsersResource(UsersService usersService) {
+    private final UsersAsyncService usersAsyncService;
+
+    private final UsersQueryService usersQueryService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties applicationProperties;
+
+    public UsersResource(UsersService usersService, UsersAsyncService usersAsyncService, UsersQueryService usersQueryService,
+                         ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
         this.usersService = usersService;
+        this.usersAsyncService = usersAsyncService;
+        this.usersQueryService = usersQueryService;
+        this.objectMapper = objectMapper;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
      * POST  /users : Create a new users.
      *
      * @param usersDTO the usersDTO to create
-     * @return the ResponseEntity with status 201 (Created) and with body the new usersDTO, or with status 400 (Bad Request) if the users has already an ID
-     * @throws URISyntaxException if the Location URI syntax is incorrect
+     * @return the ResponseEntity with status 201 (Created) and with body the new usersDTO, or with status 400 (Bad Request) if the users has already an ID or its email is already in use
      */
     @PostMapping("/users")
-    @Timed
-    public ResponseEntity<UsersDTO> createUsers(@Valid @RequestBody UsersDTO usersDTO) throws URISyntaxException {
+    public CompletableFuture<ResponseEntity<UsersDTO>> createUsers(@Valid @RequestBody UsersDTO usersDTO) {
         log.debug("REST request to save Users : {}", usersDTO);
         if (usersDTO.getId() != null) {
             throw new BadRequestAlertException("A new users cannot already have an ID", ENTITY_NAME, "idexists");
         }
-        UsersDTO result = usersService.save(usersDTO);
-        return ResponseEntity.created(new URI("/api/users/" + result.getId()))
-            .headers(HeaderUtil.createEntityCreationAlert(ENTITY_NAME, result.getId().toString()))
-            .body(result);
+        return unwrapped(usersAsyncService.findOneByEmail(usersDTO.getEmail())
+            .thenCompose(existingUsers -> {
+                if (existingUsers.isPresent()) {
+                    throw new EmailAlreadyUsedException();
+                }
+                return usersAsyncService.save(usersDTO);
+            })
+            .thenApply(result -> ResponseEntity.created(URI.create("/api/users/" + result.getId()))
+                .headers(HeaderUtil.createEntityCreationAlert(ENTITY_NAME, result.getId().toString()))
+                .body(result)));
     }
 
     /**
@@ -60,33 +109,188 @@ public class UsersResource {
      *
      * @param usersDTO the usersDTO to update
      * @return the ResponseEntity with status 200 (OK) and with body the updated usersDTO,
-     * or with status 400 (Bad Request) if the usersDTO is not valid,
+     * or with status 400 (Bad Request) if the usersDTO is not valid or its email is used by another users,
      * or with status 500 (Internal Server Error) if the usersDTO couldn't be updated
-     * @throws URISyntaxException if the Location URI syntax is incorrect
      */
     @PutMapping("/users")
-    @Timed
-    public ResponseEntity<UsersDTO> updateUsers(@Valid @RequestBody UsersDTO usersDTO) throws URISyntaxException {
+    public CompletableFuture<ResponseEntity<UsersDTO>> updateUsers(@Valid @RequestBody UsersDTO usersDTO) {
         log.debug("REST request to update Users : {}", usersDTO);
         if (usersDTO.getId() == null) {
             throw new BadRequestAlertException("Invalid id", ENTITY_NAME, "idnull");
         }
-        UsersDTO result = usersService.save(usersDTO);
+        return unwrapped(usersAsyncService.findOneByEmail(usersDTO.getEmail())
+            .thenCompose(existingUsers -> {
+                if (existingUsers.isPresent() && !existingUsers.get().getId().equals(usersDTO.getId())) {
+                    throw new EmailAlreadyUsedException();
+                }
+                return usersAsyncService.save(usersDTO);
+            })
+            .thenApply(result -> ResponseEntity.ok()
+                .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, usersDTO.getId().toString()))
+                .body(result)));
+    }
+
+    /**
+     * POST  /users/bulk : Create many users in one request.
+     *
+     * @param usersDTOs the usersDTOs to create
+     * @return the ResponseEntity with status 200 (OK) and with body the result of each item,
+     * or with status 400 (Bad Request) if the list is empty
+     */
+    @PostMapping("/users/bulk")
+    @Timed
+    public ResponseEntity<List<UsersBulkResultDTO>> createUsersInBulk(@RequestBody List<UsersDTO> usersDTOs) {
+        log.debug("REST request to save {} Users", usersDTOs.size());
+        if (usersDTOs.isEmpty()) {
+            throw new BadRequestAlertException("No users to create", ENTITY_NAME, "empty");
+        }
+        List<UsersBulkResultDTO> results = usersService.createAll(usersDTOs);
         return ResponseEntity.ok()
-            .headers(HeaderUtil.createEntityUpdateAlert(ENTITY_NAME, usersDTO.getId().toString()))
-            .body(result);
+            .headers(HeaderUtil.createAlert("Bulk creation of " + ENTITY_NAME + " processed", String.valueOf(results.size())))
+            .body(results);
+    }
+
+    /**
+     * PUT  /users/bulk : Updates many existing users in one request.
+     *
+     * @param usersDTOs the usersDTOs to update
+     * @return the ResponseEntity with status 200 (OK) and with body the result of each item,
+     * or with status 400 (Bad Request) if the list is empty
+     */
+    @PutMapping("/users/bulk")
+    @Timed
+    public ResponseEntity<List<UsersBulkResultDTO>> updateUsersInBulk(@RequestBody List<UsersDTO> usersDTOs) {
+        log.debug("REST request to update {} Users", usersDTOs.size());
+        if (usersDTOs.isEmpty()) {
+            throw new BadRequestAlertException("No users to update", ENTITY_NAME, "empty");
+        }
+        List<UsersBulkResultDTO> results = usersService.updateAll(usersDTOs);
+        return ResponseEntity.ok()
+            .headers(HeaderUtil.createAlert("Bulk update of " + ENTITY_NAME + " processed", String.valueOf(results.size())))
+            .body(results);
     }
 
     /**
      * GET  /users : get all the users.
      *
+     * @param pageable the pagination information
+     * @param criteria the criterias which the requested entities should match
      * @return the ResponseEntity with status 200 (OK) and the list of users in body
      */
     @GetMapping("/users")
+    public CompletableFuture<ResponseEntity<List<UsersDTO>>> getAllUsers(UsersCriteria criteria, Pageable pageable) {
+        log.debug("REST request to get Users by criteria: {}", criteria);
+        return unwrapped(usersAsyncService.findByCriteria(criteria, pageable).thenApply(page -> {
+            HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(page, "/api/users");
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }));
+    }
+
+    /**
+     * GET  /users/seek : get the users page by page, ordered by a key, without offset nor count.
+     *
+     * @param cursor the opaque cursor of the previous page's "next" link, or none for the first page
+     * @param key the ordering key, "id" or "country", used when no cursor is given
+     * @param pageable the pagination information, only its size is used
+     * @return the ResponseEntity with status 200 (OK) and the list of users in body,
+     * or with status 400 (Bad Request) if the cursor or the key is invalid
+     */
+    @GetMapping("/users/seek")
     @Timed
-    public List<UsersDTO> getAllUsers() {
-        log.debug("REST request to get all Users");
-        return usersService.findAll();
+    public ResponseEntity<List<UsersDTO>> getAllUsersByKeyset(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "id") String key,
+                                                              Pageable pageable) {
+        log.debug("REST request to get Users after cursor : {}", cursor);
+        UsersCursor position;
+        try {
+            position = cursor != null ? UsersCursor.decode(cursor)
+                : UsersCursor.first(UsersCursor.Key.valueOf(key.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException("Invalid cursor or key", ENTITY_NAME, "invalidcursor");
+        }
+        Slice<UsersDTO> slice = usersService.findAllAfter(position, pageable.getPageSize());
+        String nextCursor = null;
+        if (slice.hasNext()) {
+            List<UsersDTO> content = slice.getContent();
+            nextCursor = UsersCursor.after(position.getKey(), content.get(content.size() - 1)).encode();
+        }
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders(nextCursor, pageable.getPageSize(),
+            "/api/users/seek?key=" + position.getKey().name().toLowerCase(Locale.ROOT));
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+
+    /**
+     * GET  /users/export : stream all the users as newline-delimited JSON.
+     * <p>
+     * The users are read on the export executor of the {@link UsersAsyncService} and sent in chunks as soon as they
+     * are read, so neither a servlet thread nor the full table is held. A slow client slows down the reads, as sending
+     * a chunk blocks until the previous ones are written.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the emitter of the users in body
+     */
+    @GetMapping(value = "/users/export", produces = NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> exportUsers() {
+        log.debug("REST request to export all Users");
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(applicationProperties.getAsync().getStreamTimeoutMs());
+        ObjectWriter writer = objectMapper.writerFor(UsersDTO.class).without(SerializationFeature.INDENT_OUTPUT);
+        ByteArrayOutputStream chunk = new ByteArrayOutputStream(EXPORT_CHUNK_SIZE);
+        usersAsyncService.exportAll(usersDTO -> {
+            try {
+                writer.writeValue(chunk, usersDTO);
+                chunk.write('\n');
+                if (chunk.size() >= EXPORT_CHUNK_SIZE) {
+                    sendChunk(emitter, chunk);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((count, e) -> {
+            if (e == null) {
+                try {
+                    sendChunk(emitter, chunk);
+                    emitter.complete();
+                    log.debug("Exported {} Users", count);
+                } catch (IOException ex) {
+                    emitter.completeWithError(ex);
+                }
+            } else {
+                log.warn("Export of the Users aborted: {}", e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(emitter);
+    }
+
+    private static void sendChunk(ResponseBodyEmitter emitter, ByteArrayOutputStream chunk) throws IOException {
+        if (chunk.size() > 0) {
+            emitter.send(chunk.toByteArray(), NDJSON);
+            chunk.reset();
+        }
+    }
+
+    /**
+    * GET  /users/count : count all the users.
+    *
+    * @param criteria the criterias which the requested entities should match
+    * @return the ResponseEntity with status 200 (OK) and the count in body
+    */
+    @GetMapping("/users/count")
+    @Timed
+    public ResponseEntity<Long> countUsers(UsersCriteria criteria) {
+        log.debug("REST request to count Users by criteria: {}", criteria);
+        return ResponseEntity.ok().body(usersQueryService.countByCriteria(criteria));
+    }
+
+    /**
+     * GET  /users/stats : count the users by country, gender and age bucket.
+     *
+     * @return the ResponseEntity with status 200 (OK) and the aggregates in body
+     */
+    @GetMapping("/users/stats")
+    @Timed
+    public ResponseEntity<UsersStatsDTO> getUsersStats() {
+        log.debug("REST request to get Users statistics");
+        return ResponseEntity.ok().body(usersService.getStats());
     }
 
     /**
@@ -96,11 +300,21 @@ public class UsersResource {
      * @return the ResponseEntity with status 200 (OK) and with body the usersDTO, or with status 404 (Not Found)
      */
     @GetMapping("/users/{id}")
-    @Timed
-    public ResponseEntity<UsersDTO> getUsers(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<UsersDTO>> getUsers(@PathVariable Long id) {
         log.debug("REST request to get Users : {}", id);
-        Optional<UsersDTO> usersDTO = usersService.findOne(id);
-        return ResponseUtil.wrapOrNotFound(usersDTO);
+        return unwrapped(usersAsyncService.findOne(id).thenApply(ResponseUtil::wrapOrNotFound));
+    }
+
+    /**
+     * GET  /users/by-email : get the users with the given email, ignoring case.
+     *
+     * @param email the email of the usersDTO to retrieve
+     * @return the ResponseEntity with status 200 (OK) and with body the usersDTO, or with status 404 (Not Found)
+     */
+    @GetMapping("/users/by-email")
+    public CompletableFuture<ResponseEntity<UsersDTO>> getUsersByEmail(@RequestParam String email) {
+        log.debug("REST request to get Users by email : {}", email);
+        return unwrapped(usersAsyncService.findOneByEmail(email).thenApply(ResponseUtil::wrapOrNotFound));
     }
 
     /**
@@ -110,10 +324,25 @@ public class UsersResource {
      * @return the ResponseEntity with status 200 (OK)
      */
     @DeleteMapping("/users/{id}")
-    @Timed
-    public ResponseEntity<Void> deleteUsers(@PathVariable Long id) {
+    public CompletableFuture<ResponseEntity<Void>> deleteUsers(@PathVariable Long id) {
         log.debug("REST request to delete Users : {}", id);
-        usersService.delete(id);
-        return ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString())).build();
+        return unwrapped(usersAsyncService.delete(id)
+            .thenApply(deleted -> ResponseEntity.ok().headers(HeaderUtil.createEntityDeletionAlert(ENTITY_NAME, id.toString())).<Void>build()));
+    }
+
+    /**
+     * Complete with the exception thrown by a stage rather than with the {@link CompletionException} wrapping it, so
+     * the ExceptionTranslator maps it like the exceptions of the synchronous endpoints.
+     */
+    private static <T> CompletableFuture<T> unwrapped(CompletableFuture<T> future) {
+        CompletableFuture<T> unwrapped = new CompletableFuture<>();
+        future.whenComplete((value, e) -> {
+            if (e == null) {
+                unwrapped.complete(value);
+            } else {
+                unwrapped.completeExceptionally(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        });
+        return unwrapped;
     }
 }
@@ -2,6 +2,7 @@ package com.nola.raj.user.web.rest.errors;
 
 import com.nola.raj.user.web.rest.util.HeaderUtil;
 
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -104,4 +105,13 @@ public class ExceptionTranslator implements ProblemHandling {
             .build();
         return create(ex, problem, request);
     }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleTaskRejected(TaskRejectedException ex, NativeWebRequest request) {
+        Problem problem = Problem.builder()
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .with("message", ErrorConstants.ERR_SERVICE_UNAVAILABLE)
+            .build();
+        return create(ex, problem, request);
+    }
 }
@@ -39,6 +39,28 @@ public final class PaginationUtil {
         return headers;
     }
 
+    /**
+     * Generate the Link header of a keyset (seek) page. Unlike {@link #generatePaginationHttpHeaders(Page, String)}
+     * it needs no total count, so there is no "last" link and no X-Total-Count header.
+     *
+     * @param nextCursor the opaque cursor of the next page, or null if this is the last page
+     * @param size the page size
+     * @param baseUrl the base URL of the listing
+     * @return the HTTP headers
+     */
+    public static HttpHeaders generateKeysetPaginationHttpHeaders(String nextCursor, int size, String baseUrl) {
+
+        HttpHeaders headers = new HttpHeaders();
+        String link = "";
+        if (nextCursor != null) {
+            link = "<" + UriComponentsBuilder.fromUriString(baseUrl).queryParam("cursor", nextCursor)
+                .queryParam("size", size).toUriString() + ">; rel=\"next\",";
+        }
+        link += "<" + UriComponentsBuilder.fromUriString(baseUrl).queryParam("size", size).toUriString() + ">; rel=\"first\"";
+        headers.add(HttpHeaders.LINK, link);
+        return headers;
+    }
+
     private static String generateUri(String baseUrl, int page, int size) {
         return UriComponentsBuilder.fromUriString(baseUrl).queryParam("page", page).queryParam("size", size).toUriString();
     }
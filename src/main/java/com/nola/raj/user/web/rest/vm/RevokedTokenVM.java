@@ -0,0 +1,42 @@
+package com.nola.raj.user.web.rest.vm;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.Instant;
+
+/**
+ * View Model object for revoking a JWT by its "jti" claim.
+ */
+public class RevokedTokenVM {
+
+    @NotNull
+    @Size(max = 64)
+    private String jti;
+
+    @NotNull
+    private Instant expiresAt;
+
+    public String getJti() {
+        return jti;
+    }
+
+    public void setJti(String jti) {
+        this.jti = jti;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return "RevokedTokenVM{" +
+            "jti='" + jti + '\'' +
+            ", expiresAt='" + expiresAt + '\'' +
+            '}';
+    }
+}
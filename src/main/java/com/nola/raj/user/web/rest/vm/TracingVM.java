@@ -0,0 +1,47 @@
+package com.nola.raj.user.web.rest.vm;
+
+/**
+ * View Model object for the tracing of calls by the LoggingAspect.
+ */
+public class TracingVM {
+
+    private boolean woven;
+
+    private boolean enabled;
+
+    public TracingVM(boolean woven, boolean enabled) {
+        this.woven = woven;
+        this.enabled = enabled;
+    }
+
+    public TracingVM() {
+        // Empty public constructor used by Jackson.
+    }
+
+    /**
+     * @return true if the aspect exists, i.e. "application.tracing.enabled" is true
+     */
+    public boolean isWoven() {
+        return woven;
+    }
+
+    public void setWoven(boolean woven) {
+        this.woven = woven;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public String toString() {
+        return "TracingVM{" +
+            "woven=" + woven +
+            ", enabled=" + enabled +
+            '}';
+    }
+}
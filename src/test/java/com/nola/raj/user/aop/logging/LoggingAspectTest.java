@@ -0,0 +1,54 @@
+package com.nola.raj.user.aop.logging;
+
+import com.nola.raj.user.config.ApplicationProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoggingAspectTest {
+
+    private LoggingAspect loggingAspect;
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getTracing().setMaxLength(64);
+        applicationProperties.getTracing().setMaxElements(3);
+        loggingAspect = new LoggingAspect(new MockEnvironment(), applicationProperties);
+    }
+
+    @Test
+    public void testRenderSmallValues() {
+        assertThat(loggingAspect.render(new Object[]{1L, "a", null})).isEqualTo("[1, a, null]");
+        assertThat(loggingAspect.render(Optional.of(Arrays.asList(1, 2)))).isEqualTo("Optional[[1, 2]]");
+        assertThat(loggingAspect.render(ResponseEntity.ok(Collections.singletonMap("k", "v")))).isEqualTo("<200,[k=v]>");
+        assertThat(loggingAspect.render(new byte[1024])).isEqualTo("byte[1024]");
+    }
+
+    @Test
+    public void testRenderOnlyFirstElementsOfLargeCollections() {
+        List<Integer> list = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+
+        assertThat(loggingAspect.render(list)).isEqualTo("[0, 1, 2, ... (100000 elements)]");
+        assertThat(loggingAspect.render(new Object[]{list})).isEqualTo("[[0, 1, 2, ... (100000 elements)]]");
+    }
+
+    @Test
+    public void testTruncateLongValues() {
+        String longString = String.join("", Collections.nCopies(1000, "x"));
+
+        String rendered = loggingAspect.render(new Object[]{longString, longString});
+
+        assertThat(rendered).hasSize(64 + 3).startsWith("[xxx").endsWith("x...");
+    }
+}
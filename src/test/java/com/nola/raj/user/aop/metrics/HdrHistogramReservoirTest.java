@@ -0,0 +1,64 @@
+package com.nola.raj.user.aop.metrics;
+
+import com.codahale.metrics.Snapshot;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class HdrHistogramReservoirTest {
+
+    @Test
+    public void testPercentiles() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(1, TimeUnit.MINUTES);
+        for (long i = 1; i <= 1000; i++) {
+            reservoir.update(TimeUnit.MICROSECONDS.toNanos(i * 10));
+        }
+
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.size()).isEqualTo(1000);
+        assertThat(snapshot.getMedian()).isCloseTo(TimeUnit.MICROSECONDS.toNanos(5000), within(50_000.0));
+        assertThat(snapshot.get99thPercentile()).isCloseTo(TimeUnit.MICROSECONDS.toNanos(9900), within(100_000.0));
+        assertThat(snapshot.get999thPercentile()).isCloseTo(TimeUnit.MICROSECONDS.toNanos(9990), within(100_000.0));
+        assertThat(snapshot.getMin()).isCloseTo(TimeUnit.MICROSECONDS.toNanos(10), within(100L));
+        assertThat(snapshot.getValues()).hasSize(1000);
+    }
+
+    @Test
+    public void testKeepPreviousWindowOnly() throws Exception {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(1, TimeUnit.MILLISECONDS);
+        reservoir.update(1_000_000);
+        assertThat(reservoir.getSnapshot().size()).isEqualTo(1);
+
+        Thread.sleep(2);
+        reservoir.update(2_000_000);
+        assertThat(reservoir.getSnapshot().size()).isEqualTo(2);
+
+        Thread.sleep(2);
+        assertThat(reservoir.getSnapshot().size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testClampOutOfRangeValues() {
+        HdrHistogramReservoir reservoir = new HdrHistogramReservoir(1, TimeUnit.MINUTES);
+        reservoir.update(-1);
+        reservoir.update(TimeUnit.HOURS.toNanos(1));
+
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.size()).isEqualTo(2);
+        assertThat(snapshot.getMax()).isCloseTo(TimeUnit.MINUTES.toNanos(1), within(TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        Snapshot snapshot = new HdrHistogramReservoir(1, TimeUnit.MINUTES).getSnapshot();
+
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.getMax()).isZero();
+        assertThat(snapshot.getMean()).isZero();
+    }
+}
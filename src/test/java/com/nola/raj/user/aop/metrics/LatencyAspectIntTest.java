@@ -0,0 +1,82 @@
+package com.nola.raj.user.aop.metrics;
+
+import com.nola.raj.user.UserSvcApp;
+import com.nola.raj.user.repository.UsersRepository;
+import com.nola.raj.user.security.AuthoritiesConstants;
+import com.nola.raj.user.service.UsersService;
+import com.nola.raj.user.service.impl.UsersServiceImpl;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the LatencyAspect.
+ *
+ * @see LatencyAspect
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = UserSvcApp.class)
+public class LatencyAspectIntTest {
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private MetricRegistry metricRegistry;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Test
+    @Transactional
+    public void recordServiceAndRepositoryLatencies() {
+        long serviceCount = count(MetricRegistry.name(UsersServiceImpl.class, "findAll"));
+        long repositoryCount = count(MetricRegistry.name(UsersRepository.class, "findAll"));
+
+        usersService.findAll(PageRequest.of(0, 20));
+
+        Timer serviceTimer = metricRegistry.getTimers().get(MetricRegistry.name(UsersServiceImpl.class, "findAll"));
+        assertThat(serviceTimer.getCount()).isEqualTo(serviceCount + 1);
+        assertThat(serviceTimer.getSnapshot().get99thPercentile()).isPositive();
+        assertThat(count(MetricRegistry.name(UsersRepository.class, "findAll"))).isEqualTo(repositoryCount + 1);
+    }
+
+    @Test
+    @Transactional
+    public void publishLatencyPercentilesToPrometheus() throws Exception {
+        usersService.findAll(PageRequest.of(0, 20));
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+
+        String method = "class=\"" + UsersServiceImpl.class.getName() + "\",method=\"findAll\"";
+        mockMvc.perform(get("/management/prometheus").with(user("admin").authorities(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("method_latency_seconds_count{")))
+            .andExpect(content().string(containsString(method + ",quantile=\"0.5\"")))
+            .andExpect(content().string(containsString(method + ",quantile=\"0.99\"")))
+            .andExpect(content().string(containsString(method + ",quantile=\"0.999\"")));
+    }
+
+    private long count(String name) {
+        Timer timer = metricRegistry.getTimers().get(name);
+        return timer != null ? timer.getCount() : 0;
+    }
+}
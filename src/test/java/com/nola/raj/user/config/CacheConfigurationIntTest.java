@@ -0,0 +1,126 @@
+package com.nola.raj.user.config;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.nola.raj.user.UserSvcApp;
+import com.nola.raj.user.domain.Users;
+import com.nola.raj.user.repository.UsersRepository;
+import com.nola.raj.user.service.UsersService;
+import com.nola.raj.user.service.dto.UsersDTO;
+import com.nola.raj.user.web.rest.UsersResourceIntTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the second-level cache set up by {@link CacheConfiguration}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = UserSvcApp.class)
+public class CacheConfigurationIntTest {
+
+    private static final String USERS_REGION = Users.class.getName();
+
+    @Autowired
+    private UsersRepository usersRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MetricRegistry metricRegistry;
+
+    @Autowired
+    private UsersService usersService;
+
+    @Autowired
+    private CacheManager jCacheManager;
+
+    private Users users;
+
+    @After
+    public void cleanup() {
+        if (users != null) {
+            usersRepository.deleteById(users.getId());
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void usersAreServedFromTheSecondLevelCache() {
+        users = usersRepository.save(UsersResourceIntTest.createEntity(em));
+        entityManagerFactory.getCache().evictAll();
+
+        Gauge<Long> hits = (Gauge<Long>) metricRegistry.getGauges().get(MetricRegistry.name("cache", USERS_REGION, "hits"));
+        Gauge<Long> misses = (Gauge<Long>) metricRegistry.getGauges().get(MetricRegistry.name("cache", USERS_REGION, "misses"));
+        assertThat(hits).isNotNull();
+        assertThat(misses).isNotNull();
+        long hitsBefore = hits.getValue();
+        long missesBefore = misses.getValue();
+
+        // The first read misses and populates the region, the second one is a hit
+        assertThat(usersRepository.findById(users.getId())).isPresent();
+        assertThat(entityManagerFactory.getCache().contains(Users.class, users.getId())).isTrue();
+        assertThat(usersRepository.findById(users.getId())).isPresent();
+
+        assertThat(misses.getValue()).isGreaterThan(missesBefore);
+        assertThat(hits.getValue()).isGreaterThan(hitsBefore);
+    }
+
+    @Test
+    public void findOneIsCachedAndEvictedOnSave() {
+        users = usersRepository.save(UsersResourceIntTest.createEntity(em));
+
+        UsersDTO first = usersService.findOne(users.getId()).get();
+        assertThat(usersService.findOne(users.getId()).get()).isSameAs(first);
+
+        // Cached instances are shared, so the update is made on a copy
+        UsersDTO updated = new UsersDTO();
+        updated.setId(first.getId());
+        updated.setName("updated");
+        updated.setAge(first.getAge());
+        updated.setGender(first.getGender());
+        updated.setEmail(first.getEmail());
+        updated.setCountry(first.getCountry());
+        usersService.save(updated);
+
+        assertThat(usersService.findOne(users.getId()).get().getName()).isEqualTo("updated");
+    }
+
+    @Test
+    public void exportDoesNotPopulateTheSecondLevelCache() {
+        users = usersRepository.save(UsersResourceIntTest.createEntity(em));
+        entityManagerFactory.getCache().evictAll();
+        long regionSize = regionSize(USERS_REGION);
+
+        List<Long> exported = new ArrayList<>();
+        assertThat(usersService.exportAll(usersDTO -> exported.add(usersDTO.getId()))).isPositive();
+
+        assertThat(exported).contains(users.getId());
+        assertThat(entityManagerFactory.getCache().contains(Users.class, users.getId())).isFalse();
+        assertThat(regionSize(USERS_REGION)).isEqualTo(regionSize);
+    }
+
+    private long regionSize(String region) {
+        long size = 0;
+        for (Cache.Entry<Object, Object> ignored : jCacheManager.getCache(region)) {
+            size++;
+        }
+        return size;
+    }
+}
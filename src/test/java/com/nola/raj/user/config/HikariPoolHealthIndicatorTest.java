@@ -0,0 +1,91 @@
+package com.nola.raj.user.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Test class for the {@link HikariPoolHealthIndicator}.
+ */
+public class HikariPoolHealthIndicatorTest {
+
+    private static final String POOL_NAME = "testPool";
+
+    private HikariDataSource hikariDataSource;
+
+    private HikariPoolMXBean pool;
+
+    private MetricRegistry metricRegistry;
+
+    private HikariPoolHealthIndicator healthIndicator;
+
+    @Before
+    public void setup() throws Exception {
+        hikariDataSource = mock(HikariDataSource.class);
+        pool = mock(HikariPoolMXBean.class);
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.unwrap(HikariDataSource.class)).thenReturn(hikariDataSource);
+        when(hikariDataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(hikariDataSource.getPoolName()).thenReturn(POOL_NAME);
+        when(hikariDataSource.getMaximumPoolSize()).thenReturn(10);
+        metricRegistry = new MetricRegistry();
+        healthIndicator = new HikariPoolHealthIndicator(dataSource, metricRegistry, new ApplicationProperties());
+    }
+
+    @Test
+    public void testUpWhenConnectionsAreAvailable() {
+        when(pool.getActiveConnections()).thenReturn(5);
+        when(pool.getIdleConnections()).thenReturn(5);
+        metricRegistry.timer(MetricRegistry.name(POOL_NAME, "pool", "Wait")).update(1, TimeUnit.MILLISECONDS);
+
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsEntry("active", 5).containsEntry("maximum", 10).containsEntry("pending", 0);
+    }
+
+    @Test
+    public void testSaturatedWhenMostConnectionsAreActive() {
+        when(pool.getActiveConnections()).thenReturn(9);
+        when(pool.getIdleConnections()).thenReturn(1);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(HikariPoolHealthIndicator.SATURATED);
+    }
+
+    @Test
+    public void testSaturatedWhenThreadsWaitForAConnection() {
+        when(pool.getActiveConnections()).thenReturn(5);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(3);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(HikariPoolHealthIndicator.SATURATED);
+    }
+
+    @Test
+    public void testSaturatedWhenTheWaitForAConnectionIsLong() {
+        when(pool.getActiveConnections()).thenReturn(5);
+        metricRegistry.timer(MetricRegistry.name(POOL_NAME, "pool", "Wait")).update(200, TimeUnit.MILLISECONDS);
+
+        Health health = healthIndicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(HikariPoolHealthIndicator.SATURATED);
+        assertThat((Double) health.getDetails().get("waitP99Ms")).isGreaterThanOrEqualTo(200);
+    }
+
+    @Test
+    public void testUnknownWhenThePoolIsNotStarted() {
+        when(hikariDataSource.getHikariPoolMXBean()).thenReturn(null);
+
+        assertThat(healthIndicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+    }
+}
@@ -0,0 +1,34 @@
+package com.nola.raj.user.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link HikariPoolTuningPostProcessor}.
+ */
+public class HikariPoolTuningPostProcessorTest {
+
+    @Test
+    public void testApplyThePoolSettings() {
+        ApplicationProperties.Datasource.Pool pool = new ApplicationProperties.Datasource.Pool();
+        pool.setMaximumPoolSize(20);
+        pool.setMinimumIdle(20);
+        pool.setConnectionTimeoutMs(5000);
+        pool.setLeakDetectionThresholdMs(60000);
+        pool.getDataSourceProperties().put("prepareThreshold", "3");
+        pool.getDataSourceProperties().put("reWriteBatchedInserts", "true");
+        HikariDataSource hikariDataSource = new HikariDataSource();
+
+        HikariPoolTuningPostProcessor.tune(hikariDataSource, pool);
+
+        assertThat(hikariDataSource.getMaximumPoolSize()).isEqualTo(20);
+        assertThat(hikariDataSource.getMinimumIdle()).isEqualTo(20);
+        assertThat(hikariDataSource.getConnectionTimeout()).isEqualTo(5000);
+        assertThat(hikariDataSource.getLeakDetectionThreshold()).isEqualTo(60000);
+        assertThat(hikariDataSource.getDataSourceProperties())
+            .containsEntry("prepareThreshold", "3")
+            .containsEntry("reWriteBatchedInserts", "true");
+    }
+}
@@ -0,0 +1,113 @@
+package com.nola.raj.user.config;
+
+import com.codahale.metrics.MetricRegistry;
+import com.nola.raj.user.UserSvcApp;
+import com.nola.raj.user.security.AuthoritiesConstants;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcMetricsFilter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the Micrometer metrics published alongside the Dropwizard ones by {@link MetricsConfiguration}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = UserSvcApp.class)
+public class MetricsConfigurationIntTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterRegistrationBean<WebMvcMetricsFilter> webMvcMetricsFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MetricRegistry metricRegistry;
+
+    @Autowired
+    private HikariDataSource hikariDataSource;
+
+    private MockMvc mockMvc;
+
+    @Before
+    public void setup() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+            .addFilters(webMvcMetricsFilter.getFilter())
+            .apply(springSecurity())
+            .build();
+    }
+
+    @Test
+    public void hikariMetricsAreReportedToBothRegistries() throws Exception {
+        try (Connection connection = hikariDataSource.getConnection()) {
+            assertThat(connection.isValid(1)).isTrue();
+        }
+
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").tag("pool", hikariDataSource.getPoolName()).timer())
+            .isNotNull();
+        assertThat(meterRegistry.find("hikaricp.connections.acquire").timer().count()).isPositive();
+        assertThat(metricRegistry.getTimers().get(MetricRegistry.name(hikariDataSource.getPoolName(), "pool", "Wait")).getCount())
+            .isPositive();
+    }
+
+    @Test
+    public void prometheusScrapeHasTaggedMeters() throws Exception {
+        mockMvc.perform(get("/management/info")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/management/prometheus").with(user("admin").authorities(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("http_server_requests_seconds_count{")))
+            .andExpect(content().string(containsString("uri=\"/management/info\"")))
+            .andExpect(content().string(containsString("application=\"userSvc\"")))
+            .andExpect(content().string(containsString("jvm_memory_used_bytes{")))
+            .andExpect(content().string(containsString("hikaricp_connections_active{")))
+            .andExpect(content().string(containsString("cache_gets_total{")));
+    }
+
+    @Test
+    public void prometheusScrapeRequiresTheAdminAuthority() throws Exception {
+        mockMvc.perform(get("/management/prometheus"))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/management/prometheus").with(user("user").authorities(new SimpleGrantedAuthority(AuthoritiesConstants.USER))))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void asyncRequestsAreTimedUntilCompletion() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/users/{id}", Long.MAX_VALUE).with(user("user")))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertThat(meterRegistry.find("http.server.requests").tag("uri", "/api/users/{id}").timer()).isNull();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotFound());
+
+        assertThat(meterRegistry.find("http.server.requests").tag("uri", "/api/users/{id}").tag("status", "404").timer().count())
+            .isEqualTo(1);
+    }
+}
@@ -0,0 +1,151 @@
+package com.nola.raj.user.config;
+
+import com.nola.raj.user.config.ApplicationProperties.Datasource.Routing.Balancing;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link ReadReplicaRoutingDataSource}, with an H2 database for the primary and for each replica.
+ */
+public class ReadReplicaRoutingDataSourceTest {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private HikariDataSource primary;
+
+    private HikariDataSource replica1;
+
+    private HikariDataSource replica2;
+
+    @Before
+    public void setup() {
+        primary = database("primary");
+        replica1 = database("replica1");
+        replica2 = database("replica2");
+    }
+
+    @After
+    public void cleanup() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    public void testReadWriteTransactionsUseThePrimary() {
+        TestRouting routing = new TestRouting(Arrays.asList(replica1, replica2), Balancing.ROUND_ROBIN);
+
+        assertThat(routing.read(false)).isEqualTo("primary");
+        assertThat(routing.jdbcTemplate.queryForObject("select name from node", String.class)).isEqualTo("primary");
+    }
+
+    @Test
+    public void testReadOnlyTransactionsUseTheReplicasInTurn() {
+        TestRouting routing = new TestRouting(Arrays.asList(replica1, replica2), Balancing.ROUND_ROBIN);
+
+        Set<String> nodes = new HashSet<>(Arrays.asList(routing.read(true), routing.read(true)));
+
+        assertThat(nodes).containsExactlyInAnyOrder("replica1", "replica2");
+    }
+
+    @Test
+    public void testReadOnlyTransactionsUseTheLeastBusyReplica() throws Exception {
+        TestRouting routing = new TestRouting(Arrays.asList(replica1, replica2), Balancing.LEAST_CONNECTIONS);
+
+        try (Connection busy = replica1.getConnection()) {
+            assertThat(busy.isValid(1)).isTrue();
+            assertThat(routing.read(true)).isEqualTo("replica2");
+            assertThat(routing.read(true)).isEqualTo("replica2");
+        }
+    }
+
+    @Test
+    public void testReadOnlyTransactionsFallBackToThePrimary() {
+        HikariDataSource missing = pool("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        TestRouting routing = new TestRouting(Arrays.asList(missing), Balancing.ROUND_ROBIN);
+
+        assertThat(routing.read(true)).isEqualTo("primary");
+        assertThat(routing.read(true)).isEqualTo("primary");
+    }
+
+    @Test
+    public void testReadOnlyTransactionsSkipAnUnavailableReplica() {
+        HikariDataSource missing = pool("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        TestRouting routing = new TestRouting(Arrays.asList(missing, replica2), Balancing.ROUND_ROBIN);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(routing.read(true)).isEqualTo("replica2");
+        }
+    }
+
+    @Test
+    public void testReadsFromThePrimaryInReadOnlyTransactions() {
+        TestRouting routing = new TestRouting(Arrays.asList(replica1, replica2), Balancing.ROUND_ROBIN);
+        routing.transactionTemplate.setReadOnly(true);
+
+        String node = routing.transactionTemplate.execute(status -> ReadReplicaRoutingDataSource.readFromPrimary(
+            () -> routing.jdbcTemplate.queryForObject("select name from node", String.class)));
+
+        assertThat(node).isEqualTo("primary");
+        assertThat(routing.read(true)).startsWith("replica");
+    }
+
+    @Test
+    public void testConnectionsWithOtherCredentialsAreNotSupported() {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, Arrays.asList(replica1),
+            Balancing.ROUND_ROBIN, 60000);
+
+        assertThatThrownBy(() -> routing.getConnection("user", "password")).isInstanceOf(SQLFeatureNotSupportedException.class);
+    }
+
+    private HikariDataSource database(String name) {
+        HikariDataSource dataSource = pool("jdbc:h2:mem:routing-" + name);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20))");
+        jdbcTemplate.update("insert into node (name) values (?)", name);
+        return dataSource;
+    }
+
+    private HikariDataSource pool(String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setConnectionTimeout(250);
+        pools.add(dataSource);
+        return dataSource;
+    }
+
+    private class TestRouting {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private final TransactionTemplate transactionTemplate;
+
+        private TestRouting(List<HikariDataSource> replicas, Balancing balancing) {
+            LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(
+                new ReadReplicaRoutingDataSource(primary, replicas, balancing, 60000));
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        private String read(boolean readOnly) {
+            transactionTemplate.setReadOnly(readOnly);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.nola.raj.user.repository;
+
+import com.codahale.metrics.MetricRegistry;
+import com.nola.raj.user.UserSvcApp;
+import com.nola.raj.user.config.ApplicationProperties;
+import com.nola.raj.user.config.Constants;
+import com.nola.raj.user.config.audit.AuditEventConverter;
+import com.nola.raj.user.domain.PersistentAuditEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.audit.AuditEvent;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.nola.raj.user.repository.CustomAuditEventRepository.EVENT_DATA_COLUMN_MAX_LENGTH;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the CustomAuditEventRepository and the AuditEventBatchWriter.
+ *
+ * @see CustomAuditEventRepository
+ * @see AuditEventBatchWriter
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = UserSvcApp.class)
+@Transactional
+public class CustomAuditEventRepositoryIntTest {
+
+    @Autowired
+    private PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    @Autowired
+    private AuditEventConverter auditEventConverter;
+
+    private ApplicationProperties applicationProperties;
+
+    private AuditEventBatchWriter auditEventBatchWriter;
+
+    private CustomAuditEventRepository customAuditEventRepository;
+
+    @Before
+    public void setup() {
+        persistenceAuditEventRepository.deleteAll();
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getAudit().setQueueCapacity(2);
+        applicationProperties.getAudit().setBatchSize(10);
+        auditEventBatchWriter = new AuditEventBatchWriter(persistenceAuditEventRepository, new SyncTaskExecutor(),
+            applicationProperties, new MetricRegistry());
+        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository,
+            auditEventBatchWriter, auditEventConverter);
+    }
+
+    @Test
+    public void addAuditEvent() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("test-key", "test-value");
+        AuditEvent event = new AuditEvent("test-user", "test-type", data);
+
+        customAuditEventRepository.add(event);
+        assertThat(persistenceAuditEventRepository.count()).isZero();
+        auditEventBatchWriter.flush();
+
+        List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
+        assertThat(persistentAuditEvents).hasSize(1);
+        PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
+        assertThat(persistentAuditEvent.getPrincipal()).isEqualTo(event.getPrincipal());
+        assertThat(persistentAuditEvent.getAuditEventType()).isEqualTo(event.getType());
+        assertThat(persistentAuditEvent.getData()).containsEntry("test-key", "test-value");
+        assertThat(persistentAuditEvent.getAuditEventDate()).isEqualTo(event.getTimestamp());
+    }
+
+    @Test
+    public void addAuditEventTruncateLargeData() {
+        Map<String, Object> data = new HashMap<>();
+        StringBuilder largeData = new StringBuilder();
+        for (int i = 0; i < EVENT_DATA_COLUMN_MAX_LENGTH + 10; i++) {
+            largeData.append("a");
+        }
+        data.put("test-key", largeData);
+
+        customAuditEventRepository.add(new AuditEvent("test-user", "test-type", data));
+        auditEventBatchWriter.flush();
+
+        List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
+        assertThat(persistentAuditEvents).hasSize(1);
+        assertThat(persistentAuditEvents.get(0).getData().get("test-key")).hasSize(EVENT_DATA_COLUMN_MAX_LENGTH);
+    }
+
+    @Test
+    public void addAuditEventWithAnonymousUserOrAuthorizationFailure() {
+        customAuditEventRepository.add(new AuditEvent(Constants.ANONYMOUS_USER, "test-type", new HashMap<>()));
+        customAuditEventRepository.add(new AuditEvent("test-user", "AUTHORIZATION_FAILURE", new HashMap<>()));
+        auditEventBatchWriter.flush();
+
+        assertThat(persistenceAuditEventRepository.count()).isZero();
+    }
+
+    @Test
+    public void flushAsSoonAsABatchIsQueued() {
+        applicationProperties.getAudit().setBatchSize(2);
+
+        customAuditEventRepository.add(new AuditEvent("test-user", "test-type", new HashMap<>()));
+        assertThat(persistenceAuditEventRepository.count()).isZero();
+        customAuditEventRepository.add(new AuditEvent("test-user", "test-type", new HashMap<>()));
+
+        assertThat(persistenceAuditEventRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    public void dropTheNewestEventsWhenTheQueueIsFull() {
+        addEvents("first", "second", "third");
+        auditEventBatchWriter.flush();
+
+        assertThat(persistenceAuditEventRepository.findAll()).extracting("auditEventType")
+            .containsExactlyInAnyOrder("first", "second");
+    }
+
+    @Test
+    public void dropTheOldestEventsWhenTheQueueIsFull() {
+        applicationProperties.getAudit().setOverflowPolicy(ApplicationProperties.Audit.OverflowPolicy.DROP_OLDEST);
+
+        addEvents("first", "second", "third");
+        auditEventBatchWriter.flush();
+
+        assertThat(persistenceAuditEventRepository.findAll()).extracting("auditEventType")
+            .containsExactlyInAnyOrder("second", "third");
+    }
+
+    @Test
+    public void writeInTheCallerWhenTheQueueIsFull() {
+        applicationProperties.getAudit().setOverflowPolicy(ApplicationProperties.Audit.OverflowPolicy.CALLER_RUNS);
+
+        addEvents("first", "second", "third");
+        assertThat(persistenceAuditEventRepository.count()).isEqualTo(2);
+        auditEventBatchWriter.flush();
+
+        assertThat(persistenceAuditEventRepository.findAll()).extracting("auditEventType")
+            .containsExactlyInAnyOrder("first", "second", "third");
+    }
+
+    @Test
+    public void findAuditEvents() {
+        Instant now = Instant.now();
+        customAuditEventRepository.add(new AuditEvent(now.minus(1, ChronoUnit.HOURS), "test-user", "old-type", new HashMap<>()));
+        customAuditEventRepository.add(new AuditEvent(now, "other-user", "test-type", new HashMap<>()));
+        auditEventBatchWriter.flush();
+
+        assertThat(customAuditEventRepository.find(null, null, null)).hasSize(2);
+        assertThat(customAuditEventRepository.find("test-user", null, null)).extracting("type").containsExactly("old-type");
+        assertThat(customAuditEventRepository.find(null, now.minus(1, ChronoUnit.MINUTES), "test-type"))
+            .extracting("principal").containsExactly("other-user");
+    }
+
+    private void addEvents(String... types) {
+        for (String type : types) {
+            customAuditEventRepository.add(new AuditEvent("test-user", type, new HashMap<>()));
+        }
+    }
+}
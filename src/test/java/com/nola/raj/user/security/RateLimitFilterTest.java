@@ -0,0 +1,118 @@
+package com.nola.raj.user.security;
+
+import com.codahale.metrics.MetricRegistry;
+import com.nola.raj.user.config.ApplicationProperties;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RateLimitFilterTest {
+
+    private MetricRegistry metricRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ApplicationProperties.Security.RateLimit.Limit export = new ApplicationProperties.Security.RateLimit.Limit();
+        export.setPattern("/api/users/export");
+        export.setCapacity(1);
+        export.setRefillPerSecond(0.01);
+        ApplicationProperties.Security.RateLimit.Limit api = new ApplicationProperties.Security.RateLimit.Limit();
+        api.setPattern("/api/**");
+        api.setMethod("GET");
+        api.setCapacity(3);
+        api.setRefillPerSecond(1);
+        applicationProperties.getSecurity().getRateLimit().getLimits().add(export);
+        applicationProperties.getSecurity().getRateLimit().getLimits().add(api);
+        metricRegistry = new MetricRegistry();
+        rateLimitFilter = new RateLimitFilter(applicationProperties, metricRegistry);
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testRejectRequestsBeyondCapacity() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(perform("GET", "/api/users", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        MockHttpServletResponse response = perform("GET", "/api/users", "10.0.0.1");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(metricRegistry.counter("security.rate-limit.rejected").getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testApplyFirstMatchingLimitPerClient() throws Exception {
+        assertThat(perform("GET", "/api/users/export", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        MockHttpServletResponse response = perform("GET", "/api/users/export", "10.0.0.1");
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(99L, 100L);
+
+        assertThat(perform("GET", "/api/users/export", "10.0.0.2").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(perform("GET", "/api/users", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    public void testDoNotLimitUnmatchedRequests() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(perform("POST", "/api/users", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+            assertThat(perform("GET", "/management/health", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    @Test
+    public void testKeyBucketsByAuthenticatedUser() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "user",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))));
+        assertThat(perform("GET", "/api/users/export", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(perform("GET", "/api/users/export", "10.0.0.2").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+
+        SecurityContextHolder.clearContext();
+        assertThat(perform("GET", "/api/users/export", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    public void testRefillTokenBucket() {
+        long interval = TimeUnit.MILLISECONDS.toNanos(100);
+        RateLimitFilter.TokenBucket bucket = new RateLimitFilter.TokenBucket(interval, 2 * interval);
+        long now = 0;
+
+        assertThat(bucket.tryConsume(now)).isZero();
+        assertThat(bucket.tryConsume(now)).isZero();
+        assertThat(bucket.tryConsume(now)).isEqualTo(interval);
+        assertThat(bucket.tryConsume(now + interval)).isZero();
+        assertThat(bucket.tryConsume(now + interval)).isEqualTo(interval);
+        assertThat(bucket.tryConsume(now + 10 * interval)).isZero();
+        assertThat(bucket.tryConsume(now + 10 * interval)).isZero();
+        assertThat(bucket.tryConsume(now + 10 * interval)).isEqualTo(interval);
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
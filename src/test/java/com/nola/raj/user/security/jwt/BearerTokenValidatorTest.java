@@ -0,0 +1,101 @@
+package com.nola.raj.user.security.jwt;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nola.raj.user.config.ApplicationProperties;
+import com.nola.raj.user.security.AuthoritiesConstants;
+import io.github.jhipster.config.JHipsterProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BearerTokenValidatorTest {
+
+    private static final String BASE64_SECRET = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final String PAYLOAD = encode("{\"sub\":\"anonymous\",\"auth\":\"ROLE_ANONYMOUS\"}");
+
+    private static final String SIGNATURE = "c2lnbmF0dXJlLW9mLXRoZS10b2tlbg";
+
+    private MetricRegistry metricRegistry;
+
+    private BearerTokenValidator bearerTokenValidator;
+
+    private TokenProvider tokenProvider;
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        JWKSKeyResolver jwksKeyResolver = new JWKSKeyResolver(applicationProperties, new ObjectMapper());
+        metricRegistry = new MetricRegistry();
+        bearerTokenValidator = new BearerTokenValidator(jwksKeyResolver, metricRegistry);
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, jwksKeyResolver,
+            new JWTRejectionLogger(applicationProperties, metricRegistry));
+        tokenProvider.init();
+    }
+
+    @Test
+    public void testResolveValidToken() {
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("anonymous", "anonymous",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS))), false);
+
+        assertThat(bearerTokenValidator.resolveToken("Bearer " + token)).isEqualTo(token);
+        assertThat(tokenProvider.getValidAuthentication(bearerTokenValidator.resolveToken("Bearer " + token))).isPresent();
+    }
+
+    @Test
+    public void testIgnoreMissingOrOtherAuthorization() {
+        assertThat(bearerTokenValidator.resolveToken(null)).isNull();
+        assertThat(bearerTokenValidator.resolveToken("Basic YWRtaW46YWRtaW4=")).isNull();
+        assertThat(rejected("length")).isZero();
+    }
+
+    @Test
+    public void testRejectByShape() {
+        String header = encode("{\"alg\":\"HS512\"}");
+
+        assertRejected("Bearer abc", "length");
+        assertRejected("Bearer " + header + "." + PAYLOAD + "." + new String(new char[9000]).replace('\0', 'a'), "length");
+        assertRejected("Bearer " + header + "." + PAYLOAD, "segments");
+        assertRejected("Bearer " + header + "." + PAYLOAD + "." + SIGNATURE + "." + SIGNATURE, "segments");
+        assertRejected("Bearer " + header + "." + PAYLOAD + ".", "segments");
+        assertRejected("Bearer " + header + "." + PAYLOAD + "." + SIGNATURE + "=", "alphabet");
+        assertRejected("Bearer ' or 1=1 -- " + header + "." + PAYLOAD + "." + SIGNATURE, "alphabet");
+        assertRejected("Bearer " + encode("[\"alg\"]") + "." + PAYLOAD + "." + SIGNATURE, "header");
+        assertRejected("Bearer " + encode("{\"alg\":") + "." + PAYLOAD + "." + SIGNATURE, "header");
+    }
+
+    @Test
+    public void testRejectByAlgorithmAndKeyId() {
+        assertRejected("Bearer " + encode("{\"alg\":\"none\"}") + "." + PAYLOAD + "." + SIGNATURE, "algorithm");
+        assertRejected("Bearer " + encode("{\"typ\":\"JWT\"}") + "." + PAYLOAD + "." + SIGNATURE, "algorithm");
+        assertRejected("Bearer " + encode("{\"alg\":\"HS512\",\"kid\":\"key-1\"}") + "." + PAYLOAD + "." + SIGNATURE, "key_id");
+        assertRejected("Bearer " + encode("{\"alg\":\"RS256\"}") + "." + PAYLOAD + "." + SIGNATURE, "key_id");
+        assertRejected("Bearer " + encode("{\"alg\":\"RS256\",\"kid\":\"unknown\"}") + "." + PAYLOAD + "." + SIGNATURE, "key_id");
+    }
+
+    private void assertRejected(String authorizationHeader, String reason) {
+        long rejected = rejected(reason);
+
+        assertThat(bearerTokenValidator.resolveToken(authorizationHeader)).isNull();
+        assertThat(rejected(reason)).isEqualTo(rejected + 1);
+    }
+
+    private long rejected(String reason) {
+        return metricRegistry.counter("security.jwt.rejected." + reason).getCount();
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
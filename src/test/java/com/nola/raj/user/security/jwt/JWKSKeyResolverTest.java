@@ -0,0 +1,201 @@
+package com.nola.raj.user.security.jwt;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nola.raj.user.config.ApplicationProperties;
+import io.github.jhipster.config.JHipsterProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.security.core.Authentication;
+
+import java.io.File;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JWKSKeyResolverTest {
+
+    private static final String BASE64_SECRET = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File jwksFile;
+
+    private KeyPair rsaKeyPair;
+
+    private KeyPair ecKeyPair;
+
+    private JWKSKeyResolver jwksKeyResolver;
+
+    private TokenProvider tokenProvider;
+
+    @Before
+    public void setup() throws Exception {
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        rsaKeyPair = rsaGenerator.generateKeyPair();
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ecKeyPair = ecGenerator.generateKeyPair();
+
+        jwksFile = temporaryFolder.newFile("jwks.json");
+        writeJwks(rsaJwk("rsa-1", rsaKeyPair), ecJwk("ec-1", ecKeyPair));
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getJwks().setLocation(jwksFile.getAbsolutePath());
+        jwksKeyResolver = new JWKSKeyResolver(applicationProperties, new ObjectMapper());
+        jwksKeyResolver.init();
+
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties, jwksKeyResolver,
+            new JWTRejectionLogger(applicationProperties, new MetricRegistry()));
+        tokenProvider.init();
+    }
+
+    @Test
+    public void testLoadKeys() {
+        assertThat(jwksKeyResolver.getKeyIds()).containsExactlyInAnyOrder("rsa-1", "ec-1");
+    }
+
+    @Test
+    public void testAcceptRs256AndEs256Tokens() {
+        String rsaToken = createToken("rsa-1", rsaKeyPair, SignatureAlgorithm.RS256);
+        String ecToken = createToken("ec-1", ecKeyPair, SignatureAlgorithm.ES256);
+
+        assertThat(tokenProvider.getValidAuthentication(rsaToken)).isPresent();
+        assertThat(tokenProvider.getValidAuthentication(ecToken).get().getName()).isEqualTo("jwks-user");
+    }
+
+    @Test
+    public void testRejectUnknownKeyIdAndMismatchingAlgorithm() {
+        String unknownKeyToken = createToken("rsa-2", rsaKeyPair, SignatureAlgorithm.RS256);
+        String otherAlgorithmToken = createToken("rsa-1", rsaKeyPair, SignatureAlgorithm.RS512);
+        String otherKeyToken = createToken("ec-1", rsaKeyPair, SignatureAlgorithm.RS256);
+
+        assertThat(tokenProvider.getValidAuthentication(unknownKeyToken)).isNotPresent();
+        assertThat(tokenProvider.getValidAuthentication(otherAlgorithmToken)).isNotPresent();
+        assertThat(tokenProvider.getValidAuthentication(otherKeyToken)).isNotPresent();
+    }
+
+    @Test
+    public void testReloadRotatedKeys() throws Exception {
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        KeyPair rotatedKeyPair = rsaGenerator.generateKeyPair();
+        writeJwks(rsaJwk("rsa-2", rotatedKeyPair));
+        jwksFile.setLastModified(jwksFile.lastModified() + 2000);
+
+        jwksKeyResolver.reload();
+
+        assertThat(jwksKeyResolver.getKeyIds()).containsExactly("rsa-2");
+        assertThat(tokenProvider.getValidAuthentication(createToken("rsa-2", rotatedKeyPair, SignatureAlgorithm.RS256))).isPresent();
+        assertThat(tokenProvider.getValidAuthentication(createToken("rsa-1", rsaKeyPair, SignatureAlgorithm.RS256))).isNotPresent();
+    }
+
+    @Test
+    public void testRejectCachedTokenWhenItsKeyIsReplaced() throws Exception {
+        String token = createToken("rsa-1", rsaKeyPair, SignatureAlgorithm.RS256);
+        assertThat(tokenProvider.getValidAuthentication(token)).isPresent();
+
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        KeyPair replacingKeyPair = rsaGenerator.generateKeyPair();
+        writeJwks(rsaJwk("rsa-1", replacingKeyPair), ecJwk("ec-1", ecKeyPair));
+        jwksFile.setLastModified(jwksFile.lastModified() + 2000);
+        jwksKeyResolver.reload();
+
+        assertThat(tokenProvider.getValidAuthentication(token)).isNotPresent();
+        assertThat(tokenProvider.getValidAuthentication(createToken("rsa-1", replacingKeyPair, SignatureAlgorithm.RS256))).isPresent();
+    }
+
+    @Test
+    public void testAcceptTokenWithoutAuthorities() {
+        String token = Jwts.builder()
+            .setHeaderParam("kid", "rsa-1")
+            .setSubject("jwks-user")
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .signWith(rsaKeyPair.getPrivate(), SignatureAlgorithm.RS256)
+            .compact();
+
+        Optional<Authentication> authentication = tokenProvider.getValidAuthentication(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("jwks-user");
+        assertThat(authentication.get().getAuthorities()).isEmpty();
+    }
+
+    @Test
+    public void testRejectTokenWithoutSubject() {
+        String token = Jwts.builder()
+            .setHeaderParam("kid", "rsa-1")
+            .claim("auth", "ROLE_USER")
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .signWith(rsaKeyPair.getPrivate(), SignatureAlgorithm.RS256)
+            .compact();
+
+        assertThat(tokenProvider.getValidAuthentication(token)).isNotPresent();
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    public void testKeepKeysWhenReloadFails() throws Exception {
+        Files.write(jwksFile.toPath(), "{ not json".getBytes(StandardCharsets.UTF_8));
+        jwksFile.setLastModified(jwksFile.lastModified() + 2000);
+
+        jwksKeyResolver.reload();
+
+        assertThat(jwksKeyResolver.getKeyIds()).containsExactlyInAnyOrder("rsa-1", "ec-1");
+    }
+
+    private String createToken(String keyId, KeyPair keyPair, SignatureAlgorithm algorithm) {
+        return Jwts.builder()
+            .setHeaderParam("kid", keyId)
+            .setSubject("jwks-user")
+            .claim("auth", "ROLE_USER")
+            .setExpiration(new Date(System.currentTimeMillis() + 60000))
+            .signWith(keyPair.getPrivate(), algorithm)
+            .compact();
+    }
+
+    private void writeJwks(String... jwks) throws Exception {
+        String content = "{\"keys\":[" + String.join(",", Arrays.asList(jwks)) + "]}";
+        Files.write(jwksFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String rsaJwk(String keyId, KeyPair keyPair) {
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return "{\"kty\":\"RSA\",\"use\":\"sig\",\"alg\":\"RS256\",\"kid\":\"" + keyId + "\"," +
+            "\"n\":\"" + encode(publicKey.getModulus()) + "\",\"e\":\"" + encode(publicKey.getPublicExponent()) + "\"}";
+    }
+
+    private static String ecJwk(String keyId, KeyPair keyPair) {
+        ECPublicKey publicKey = (ECPublicKey) keyPair.getPublic();
+        return "{\"kty\":\"EC\",\"crv\":\"P-256\",\"kid\":\"" + keyId + "\"," +
+            "\"x\":\"" + encode(publicKey.getW().getAffineX()) + "\",\"y\":\"" + encode(publicKey.getW().getAffineY()) + "\"}";
+    }
+
+    private static String encode(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes[0] == 0 && bytes.length > 1) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
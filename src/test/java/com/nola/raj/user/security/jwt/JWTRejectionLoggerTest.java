@@ -0,0 +1,40 @@
+package com.nola.raj.user.security.jwt;
+
+import com.codahale.metrics.MetricRegistry;
+import com.nola.raj.user.config.ApplicationProperties;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JWTRejectionLoggerTest {
+
+    private MetricRegistry metricRegistry;
+
+    private JWTRejectionLogger rejectionLogger;
+
+    @Before
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getSecurity().getRejectionLog().setMaxPerSecond(2);
+        metricRegistry = new MetricRegistry();
+        rejectionLogger = new JWTRejectionLogger(applicationProperties, metricRegistry);
+    }
+
+    @Test
+    public void testCountEveryRejectionButLogOnlyMaxPerSecond() {
+        long now = System.currentTimeMillis();
+        SignatureException e = new SignatureException("JWT signature does not match");
+
+        assertThat(rejectionLogger.reject(JWTRejectionLogger.Reason.INVALID_SIGNATURE, e, now)).isTrue();
+        assertThat(rejectionLogger.reject(JWTRejectionLogger.Reason.INVALID_SIGNATURE, e, now + 10)).isTrue();
+        assertThat(rejectionLogger.reject(JWTRejectionLogger.Reason.INVALID_SIGNATURE, e, now + 20)).isFalse();
+        assertThat(rejectionLogger.reject(JWTRejectionLogger.Reason.EXPIRED, e, now + 999)).isFalse();
+        assertThat(rejectionLogger.reject(JWTRejectionLogger.Reason.EXPIRED, e, now + 1000)).isTrue();
+
+        assertThat(metricRegistry.counter("security.jwt.invalid.invalid_signature").getCount()).isEqualTo(3);
+        assertThat(metricRegistry.counter("security.jwt.invalid.expired").getCount()).isEqualTo(2);
+        assertThat(metricRegistry.counter("security.jwt.invalid.unsupported").getCount()).isZero();
+    }
+}
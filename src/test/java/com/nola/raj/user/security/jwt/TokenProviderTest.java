@@ -0,0 +1,145 @@
+package com.nola.raj.user.security.jwt;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nola.raj.user.config.ApplicationProperties;
+import com.nola.raj.user.security.AuthoritiesConstants;
+import io.github.jhipster.config.JHipsterProperties;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenProviderTest {
+
+    private static final String BASE64_SECRET = "fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private static final String OTHER_BASE64_SECRET = "xfd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8";
+
+    private JHipsterProperties jHipsterProperties;
+
+    private ApplicationProperties applicationProperties;
+
+    private TokenProvider tokenProvider;
+
+    @Before
+    public void setup() {
+        jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(BASE64_SECRET);
+        applicationProperties = new ApplicationProperties();
+        tokenProvider = new TokenProvider(jHipsterProperties, applicationProperties,
+            new JWKSKeyResolver(applicationProperties, new ObjectMapper()), new JWTRejectionLogger(applicationProperties, new MetricRegistry()));
+        tokenProvider.init();
+    }
+
+    @Test
+    public void testReturnAuthenticationOfValidToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.getValidAuthentication(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("anonymous");
+        assertThat(authentication.get().getAuthorities()).extracting("authority").containsExactly(AuthoritiesConstants.ANONYMOUS);
+        assertThat(((JWTPrincipal) authentication.get().getPrincipal()).getTokenId()).isNotEmpty();
+        assertThat(((JWTPrincipal) authentication.get().getPrincipal()).getTokenExpiration()).isNotNull();
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+    }
+
+    @Test
+    public void testCacheAuthenticationOfVerifiedToken() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = tokenProvider.getValidAuthentication(token).get();
+        Authentication second = tokenProvider.getValidAuthentication(token).get();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+        assertThat(second.getCredentials()).isEqualTo(token);
+    }
+
+    @Test
+    public void testCachedVerificationHoldsNoToken() throws IllegalAccessException {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        tokenProvider.getValidAuthentication(token);
+
+        Object verifiedToken = tokenProvider.getVerifiedToken(token);
+
+        assertThat(verifiedToken).isNotNull();
+        for (Field field : verifiedToken.getClass().getDeclaredFields()) {
+            field.setAccessible(true);
+            Object value = field.get(verifiedToken);
+            assertThat(value).isNotInstanceOf(Authentication.class);
+            assertThat(String.valueOf(value)).doesNotContain(token);
+        }
+    }
+
+    @Test
+    public void testShareAuthoritiesOfTokensWithTheSameRoles() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        String rememberMeToken = tokenProvider.createToken(createAuthentication(), true);
+
+        Authentication authentication = tokenProvider.getValidAuthentication(token).get();
+        Authentication rememberMeAuthentication = tokenProvider.getValidAuthentication(rememberMeToken).get();
+
+        assertThat(authentication.getPrincipal()).isInstanceOf(JWTPrincipal.class);
+        assertThat(((JWTPrincipal) rememberMeAuthentication.getPrincipal()).getAuthorities())
+            .isSameAs(((JWTPrincipal) authentication.getPrincipal()).getAuthorities());
+    }
+
+    @Test
+    public void testDoNotCacheWhenRegionIsDisabled() {
+        ApplicationProperties.Cache.Region disabled = new ApplicationProperties.Cache.Region();
+        disabled.setEnabled(false);
+        applicationProperties.getCache().getRegions().put(TokenProvider.VERIFIED_TOKENS_CACHE, disabled);
+        tokenProvider.init();
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Authentication first = tokenProvider.getValidAuthentication(token).get();
+        Authentication second = tokenProvider.getValidAuthentication(token).get();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getName()).isEqualTo(first.getName());
+    }
+
+    @Test
+    public void testRejectTokenWithInvalidSignature() {
+        JHipsterProperties otherProperties = new JHipsterProperties();
+        otherProperties.getSecurity().getAuthentication().getJwt().setBase64Secret(OTHER_BASE64_SECRET);
+        TokenProvider otherTokenProvider = new TokenProvider(otherProperties, new ApplicationProperties(),
+            new JWKSKeyResolver(new ApplicationProperties(), new ObjectMapper()),
+            new JWTRejectionLogger(new ApplicationProperties(), new MetricRegistry()));
+        otherTokenProvider.init();
+        String token = otherTokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.getValidAuthentication(token)).isNotPresent();
+        assertThat(tokenProvider.validateToken(token)).isFalse();
+    }
+
+    @Test
+    public void testRejectExpiredToken() {
+        jHipsterProperties.getSecurity().getAuthentication().getJwt().setTokenValidityInSeconds(-60);
+        tokenProvider.init();
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        assertThat(tokenProvider.getValidAuthentication(token)).isNotPresent();
+    }
+
+    @Test
+    public void testRejectMalformedToken() {
+        assertThat(tokenProvider.getValidAuthentication("not.a.jwt")).isNotPresent();
+        assertThat(tokenProvider.getValidAuthentication("")).isNotPresent();
+    }
+
+    private Authentication createAuthentication() {
+        return new UsernamePasswordAuthenticationToken("anonymous", "anonymous",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS)));
+    }
+}
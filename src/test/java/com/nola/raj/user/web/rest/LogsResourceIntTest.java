@@ -1,23 +1,32 @@
 package com.nola.raj.user.web.rest;
 
 import com.nola.raj.user.UserSvcApp;
+import com.nola.raj.user.aop.logging.LoggingAspect;
+import com.nola.raj.user.config.ApplicationProperties;
+import com.nola.raj.user.web.rest.errors.ExceptionTranslator;
 import com.nola.raj.user.web.rest.vm.LoggerVM;
+import com.nola.raj.user.web.rest.vm.TracingVM;
 import ch.qos.logback.classic.AsyncAppender;
 import ch.qos.logback.classic.LoggerContext;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -29,13 +38,23 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest(classes = UserSvcApp.class)
 public class LogsResourceIntTest {
 
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
     private MockMvc restLogsMockMvc;
 
+    private LoggingAspect loggingAspect;
+
     @Before
     public void setup() {
-        LogsResource logsResource = new LogsResource();
+        loggingAspect = new LoggingAspect(env, new ApplicationProperties());
+        LogsResource logsResource = new LogsResource(Optional.of(loggingAspect));
         this.restLogsMockMvc = MockMvcBuilders
             .standaloneSetup(logsResource)
+            .setControllerAdvice(exceptionTranslator)
             .build();
     }
 
@@ -58,6 +77,39 @@ public class LogsResourceIntTest {
             .andExpect(status().isNoContent());
     }
 
+    @Test
+    public void changeTracing() throws Exception {
+        restLogsMockMvc.perform(get("/management/logs/tracing"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.woven").value(true))
+            .andExpect(jsonPath("$.enabled").value(true));
+
+        restLogsMockMvc.perform(put("/management/logs/tracing")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(new TracingVM(true, false))))
+            .andExpect(status().isNoContent());
+
+        assertThat(loggingAspect.isTracing()).isFalse();
+    }
+
+    @Test
+    public void changeTracingWhenNotWoven() throws Exception {
+        MockMvc restLogsWithoutAspectMockMvc = MockMvcBuilders
+            .standaloneSetup(new LogsResource(Optional.empty()))
+            .setControllerAdvice(exceptionTranslator)
+            .build();
+
+        restLogsWithoutAspectMockMvc.perform(get("/management/logs/tracing"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.woven").value(false))
+            .andExpect(jsonPath("$.enabled").value(false));
+
+        restLogsWithoutAspectMockMvc.perform(put("/management/logs/tracing")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(new TracingVM(false, true))))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testLogstashAppender() {
         LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
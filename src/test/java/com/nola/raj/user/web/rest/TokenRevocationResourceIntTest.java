@@ -0,0 +1,164 @@
+package com.nola.raj.user.web.rest;
+
+import com.nola.raj.user.UserSvcApp;
+
+import com.nola.raj.user.domain.RevokedToken;
+import com.nola.raj.user.repository.RevokedTokenRepository;
+import com.nola.raj.user.security.AuthoritiesConstants;
+import com.nola.raj.user.security.jwt.JWTPrincipal;
+import com.nola.raj.user.security.jwt.TokenProvider;
+import com.nola.raj.user.service.TokenRevocationService;
+import com.nola.raj.user.web.rest.errors.ExceptionTranslator;
+import com.nola.raj.user.web.rest.vm.RevokedTokenVM;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Test class for the TokenRevocationResource REST controller.
+ *
+ * @see TokenRevocationResource
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = UserSvcApp.class)
+public class TokenRevocationResourceIntTest {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private TokenProvider tokenProvider;
+
+    @Autowired
+    private MappingJackson2HttpMessageConverter jacksonMessageConverter;
+
+    @Autowired
+    private ExceptionTranslator exceptionTranslator;
+
+    private MockMvc restTokenRevocationMockMvc;
+
+    @Before
+    public void setup() {
+        TokenRevocationResource tokenRevocationResource = new TokenRevocationResource(tokenRevocationService);
+        this.restTokenRevocationMockMvc = MockMvcBuilders.standaloneSetup(tokenRevocationResource)
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter).build();
+    }
+
+    @After
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @Transactional
+    public void revokeToken() throws Exception {
+        RevokedTokenVM revokedTokenVM = new RevokedTokenVM();
+        revokedTokenVM.setJti(UUID.randomUUID().toString());
+        revokedTokenVM.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS));
+
+        restTokenRevocationMockMvc.perform(post("/api/revoked-tokens")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(revokedTokenVM)))
+            .andExpect(status().isNoContent());
+
+        RevokedToken revokedToken = revokedTokenRepository.findById(revokedTokenVM.getJti()).get();
+        assertThat(revokedToken.getExpiresAt()).isEqualTo(revokedTokenVM.getExpiresAt());
+        assertThat(revokedToken.getRevokedAt()).isNotNull();
+        assertThat(tokenRevocationService.isRevoked(revokedTokenVM.getJti())).isTrue();
+        assertThat(tokenRevocationService.isRevoked(UUID.randomUUID().toString())).isFalse();
+    }
+
+    @Test
+    @Transactional
+    public void revokeTokenWithoutJti() throws Exception {
+        RevokedTokenVM revokedTokenVM = new RevokedTokenVM();
+        revokedTokenVM.setExpiresAt(Instant.now().plus(1, ChronoUnit.HOURS));
+
+        restTokenRevocationMockMvc.perform(post("/api/revoked-tokens")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(revokedTokenVM)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void revokeCurrentToken() throws Exception {
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("user", "user",
+            Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))), false);
+        Authentication authentication = tokenProvider.getValidAuthentication(token).get();
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        String jti = ((JWTPrincipal) authentication.getPrincipal()).getTokenId();
+        assertThat(tokenRevocationService.isRevoked(jti)).isFalse();
+
+        restTokenRevocationMockMvc.perform(post("/api/revoked-tokens/current"))
+            .andExpect(status().isNoContent());
+
+        assertThat(revokedTokenRepository.findById(jti)).isPresent();
+        assertThat(tokenRevocationService.isRevoked(jti)).isTrue();
+    }
+
+    @Test
+    @Transactional
+    public void revokeCurrentTokenWithoutJwt() throws Exception {
+        restTokenRevocationMockMvc.perform(post("/api/revoked-tokens/current"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void refreshLoadsTokensRevokedByOtherInstances() {
+        String jti = UUID.randomUUID().toString();
+        revokedTokenRepository.saveAndFlush(new RevokedToken().jti(jti)
+            .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+            .revokedAt(Instant.now()));
+        assertThat(tokenRevocationService.isRevoked(jti)).isFalse();
+
+        tokenRevocationService.refresh();
+
+        assertThat(tokenRevocationService.isRevoked(jti)).isTrue();
+    }
+
+    @Test
+    @Transactional
+    public void removeExpiredRevocations() {
+        String expiredJti = UUID.randomUUID().toString();
+        String jti = UUID.randomUUID().toString();
+        revokedTokenRepository.saveAndFlush(new RevokedToken().jti(expiredJti)
+            .expiresAt(Instant.now().minus(1, ChronoUnit.MINUTES))
+            .revokedAt(Instant.now().minus(1, ChronoUnit.HOURS)));
+        revokedTokenRepository.saveAndFlush(new RevokedToken().jti(jti)
+            .expiresAt(Instant.now().plus(1, ChronoUnit.HOURS))
+            .revokedAt(Instant.now()));
+
+        tokenRevocationService.removeExpiredRevocations();
+
+        assertThat(revokedTokenRepository.findById(expiredJti)).isNotPresent();
+        assertThat(revokedTokenRepository.findById(jti)).isPresent();
+    }
+}
@@ -2,34 +2,60 @@ package com.nola.raj.user.web.rest;
 
 import com.nola.raj.user.UserSvcApp;
 
+import com.nola.raj.user.config.ApplicationProperties;
+
+import com.nola.raj.user.domain.Country;
 import com.nola.raj.user.domain.Users;
 import com.nola.raj.user.repository.UsersRepository;
+import com.nola.raj.user.service.UsersAsyncService;
 import com.nola.raj.user.service.UsersService;
 import com.nola.raj.user.service.dto.UsersDTO;
 import com.nola.raj.user.service.mapper.UsersMapper;
+import com.nola.raj.user.web.rest.errors.EmailAlreadyUsedException;
+import com.nola.raj.user.web.rest.errors.ErrorConstants;
 import com.nola.raj.user.web.rest.errors.ExceptionTranslator;
+import com.nola.raj.user.service.UsersQueryService;
+import com.nola.raj.user.domain.enumeration.Gender;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 
 
 import static com.nola.raj.user.web.rest.TestUtil.createFormattingConversionService;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -48,14 +74,14 @@ public class UsersResourceIntTest {
     private static final Integer DEFAULT_AGE = 1;
     private static final Integer UPDATED_AGE = 2;
 
-    private static final String DEFAULT_GENDER = "AAAAAAAAAA";
-    private static final String UPDATED_GENDER = "BBBBBBBBBB";
+    private static final Gender DEFAULT_GENDER = Gender.MALE;
+    private static final Gender UPDATED_GENDER = Gender.FEMALE;
 
     private static final String DEFAULT_EMAIL = "AAAAAAAAAA";
     private static final String UPDATED_EMAIL = "BBBBBBBBBB";
 
-    private static final String DEFAULT_COUNTRY = "AAAAAAAAAA";
-    private static final String UPDATED_COUNTRY = "BBBBBBBBBB";
+    private static final Country DEFAULT_COUNTRY = Country.of("FR");
+    private static final Country UPDATED_COUNTRY = Country.of("IN");
 
     @Autowired
     private UsersRepository usersRepository;
@@ -66,6 +92,15 @@ public class UsersResourceIntTest {
     @Autowired
     private UsersService usersService;
 
+    @Autowired
+    private UsersQueryService usersQueryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
     @Autowired
     private MappingJackson2HttpMessageConverter jacksonMessageConverter;
 
@@ -85,12 +120,42 @@ public class UsersResourceIntTest {
     @Before
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        final UsersResource usersResource = new UsersResource(usersService);
+        final UsersAsyncService usersAsyncService = new UsersAsyncService(usersService, usersQueryService,
+            new SyncTaskExecutor(), new SyncTaskExecutor());
+        final UsersResource usersResource = new UsersResource(usersService, usersAsyncService, usersQueryService, objectMapper, applicationProperties);
         this.restUsersMockMvc = MockMvcBuilders.standaloneSetup(usersResource)
             .setCustomArgumentResolvers(pageableArgumentResolver)
             .setControllerAdvice(exceptionTranslator)
             .setConversionService(createFormattingConversionService())
-            .setMessageConverters(jacksonMessageConverter).build();
+            .setMessageConverters(jacksonMessageConverter, new ByteArrayHttpMessageConverter()).build();
+    }
+
+    /**
+     * Perform a request on the users resource, and dispatch its asynchronous result if it has one.
+     */
+    private ResultActions performAsync(RequestBuilder request) throws Exception {
+        ResultActions resultActions = restUsersMockMvc.perform(request);
+        MvcResult result = resultActions.andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            return restUsersMockMvc.perform(asyncDispatch(result));
+        }
+        return resultActions;
+    }
+
+    private MockMvc createMockMvc(UsersAsyncService usersAsyncService) {
+        return MockMvcBuilders
+            .standaloneSetup(new UsersResource(usersService, usersAsyncService, usersQueryService, objectMapper, applicationProperties))
+            .setControllerAdvice(exceptionTranslator)
+            .setMessageConverters(jacksonMessageConverter, new ByteArrayHttpMessageConverter()).build();
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(int poolSize, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.initialize();
+        return executor;
     }
 
     /**
@@ -121,7 +186,7 @@ public class UsersResourceIntTest {
 
         // Create the Users
         UsersDTO usersDTO = usersMapper.toDto(users);
-        restUsersMockMvc.perform(post("/api/users")
+        performAsync(post("/api/users")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
             .andExpect(status().isCreated());
@@ -147,7 +212,7 @@ public class UsersResourceIntTest {
         UsersDTO usersDTO = usersMapper.toDto(users);
 
         // An entity with an existing ID cannot be created, so this API call must fail
-        restUsersMockMvc.perform(post("/api/users")
+        performAsync(post("/api/users")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
             .andExpect(status().isBadRequest());
@@ -157,6 +222,119 @@ public class UsersResourceIntTest {
         assertThat(usersList).hasSize(databaseSizeBeforeCreate);
     }
 
+    @Test
+    @Transactional
+    public void createUsersWithExistingEmail() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+        int databaseSizeBeforeCreate = usersRepository.findAll().size();
+
+        // Create another Users with the same email in another case
+        UsersDTO usersDTO = usersMapper.toDto(createEntity(em).email(DEFAULT_EMAIL.toLowerCase()));
+
+        // An email can only be used once, so this API call must fail
+        performAsync(post("/api/users")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorKey").value("emailexists"));
+
+        // Validate the Users in the database
+        List<Users> usersList = usersRepository.findAll();
+        assertThat(usersList).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    public void saveUsersWithExistingEmailIsRejectedByTheIndex() {
+        // Insert a Users directly, as a concurrent request would between the email check and the insert
+        usersRepository.saveAndFlush(users);
+
+        UsersDTO usersDTO = usersMapper.toDto(createEntity(em));
+
+        assertThatThrownBy(() -> usersService.save(usersDTO)).isInstanceOf(EmailAlreadyUsedException.class);
+    }
+
+    @Test
+    @Transactional
+    public void createUsersWithExistingEmailMissedByTheCheck() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+        int databaseSizeBeforeCreate = usersRepository.findAll().size();
+
+        // The email check does not see the existing Users, as when it runs concurrently with its creation
+        UsersAsyncService racingService = new UsersAsyncService(usersService, usersQueryService,
+            new SyncTaskExecutor(), new SyncTaskExecutor()) {
+            @Override
+            public CompletableFuture<Optional<UsersDTO>> findOneByEmail(String email) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+        };
+        MockMvc racingMockMvc = createMockMvc(racingService);
+        UsersDTO usersDTO = usersMapper.toDto(createEntity(em));
+
+        MvcResult result = racingMockMvc.perform(post("/api/users")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
+            .andReturn();
+        racingMockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.errorKey").value("emailexists"));
+
+        // Validate the Users in the database
+        List<Users> usersList = usersRepository.findAll();
+        assertThat(usersList).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    public void createUsersWithNormalizedGenderAndCountry() throws Exception {
+        int databaseSizeBeforeCreate = usersRepository.findAll().size();
+
+        // Create the Users with a lower case gender and country
+        UsersDTO usersDTO = usersMapper.toDto(users);
+        usersDTO.setGender(DEFAULT_GENDER.name().toLowerCase());
+        usersDTO.setCountry(DEFAULT_COUNTRY.getCode().toLowerCase());
+        performAsync(post("/api/users")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.gender").value(DEFAULT_GENDER.toString()))
+            .andExpect(jsonPath("$.country").value(DEFAULT_COUNTRY.toString()));
+
+        // Validate the Users in the database share the canonical country
+        List<Users> usersList = usersRepository.findAll();
+        assertThat(usersList).hasSize(databaseSizeBeforeCreate + 1);
+        Users testUsers = usersList.get(usersList.size() - 1);
+        assertThat(testUsers.getGender()).isEqualTo(DEFAULT_GENDER);
+        assertThat(testUsers.getCountry()).isSameAs(DEFAULT_COUNTRY);
+    }
+
+    @Test
+    @Transactional
+    public void createUsersWithInvalidGenderOrCountry() throws Exception {
+        int databaseSizeBeforeCreate = usersRepository.findAll().size();
+
+        // Create the Users with an unknown country, which fails
+        UsersDTO usersDTO = usersMapper.toDto(users);
+        usersDTO.setCountry("ZZ");
+        performAsync(post("/api/users")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
+            .andExpect(status().isBadRequest());
+
+        // Create the Users with an unknown gender, which fails
+        usersDTO = usersMapper.toDto(users);
+        usersDTO.setGender("unknown");
+        performAsync(post("/api/users")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
+            .andExpect(status().isBadRequest());
+
+        List<Users> usersList = usersRepository.findAll();
+        assertThat(usersList).hasSize(databaseSizeBeforeCreate);
+    }
+
     @Test
     @Transactional
     public void checkAgeIsRequired() throws Exception {
@@ -167,7 +345,7 @@ public class UsersResourceIntTest {
         // Create the Users, which fails.
         UsersDTO usersDTO = usersMapper.toDto(users);
 
-        restUsersMockMvc.perform(post("/api/users")
+        performAsync(post("/api/users")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
             .andExpect(status().isBadRequest());
@@ -186,7 +364,7 @@ public class UsersResourceIntTest {
         // Create the Users, which fails.
         UsersDTO usersDTO = usersMapper.toDto(users);
 
-        restUsersMockMvc.perform(post("/api/users")
+        performAsync(post("/api/users")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
             .andExpect(status().isBadRequest());
@@ -205,7 +383,7 @@ public class UsersResourceIntTest {
         // Create the Users, which fails.
         UsersDTO usersDTO = usersMapper.toDto(users);
 
-        restUsersMockMvc.perform(post("/api/users")
+        performAsync(post("/api/users")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
             .andExpect(status().isBadRequest());
@@ -224,7 +402,7 @@ public class UsersResourceIntTest {
         // Create the Users, which fails.
         UsersDTO usersDTO = usersMapper.toDto(users);
 
-        restUsersMockMvc.perform(post("/api/users")
+        performAsync(post("/api/users")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
             .andExpect(status().isBadRequest());
@@ -233,6 +411,67 @@ public class UsersResourceIntTest {
         assertThat(usersList).hasSize(databaseSizeBeforeTest);
     }
 
+    @Test
+    @Transactional
+    public void createUsersInBulk() throws Exception {
+        int databaseSizeBeforeCreate = usersRepository.findAll().size();
+
+        // Create two valid Users, one without age and one reusing the email of the first
+        UsersDTO invalid = usersMapper.toDto(createEntity(em).age(null).email(UPDATED_EMAIL));
+        UsersDTO duplicate = usersMapper.toDto(createEntity(em).email(DEFAULT_EMAIL.toLowerCase()));
+        List<UsersDTO> usersDTOs = Arrays.asList(usersMapper.toDto(users), invalid,
+            usersMapper.toDto(createEntity(em).email(UPDATED_EMAIL)), duplicate);
+        restUsersMockMvc.perform(post("/api/users/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(usersDTOs)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("CREATED"))
+            .andExpect(jsonPath("$.[0].id").isNumber())
+            .andExpect(jsonPath("$.[1].status").value("REJECTED"))
+            .andExpect(jsonPath("$.[1].errors.[0]").value(containsString("age")))
+            .andExpect(jsonPath("$.[2].status").value("CREATED"))
+            .andExpect(jsonPath("$.[3].status").value("REJECTED"))
+            .andExpect(jsonPath("$.[3].errors.[0]").value(containsString("email")));
+
+        // Validate the Users in the database
+        List<Users> usersList = usersRepository.findAll();
+        assertThat(usersList).hasSize(databaseSizeBeforeCreate + 2);
+    }
+
+    @Test
+    @Transactional
+    public void updateUsersInBulk() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+        em.detach(users);
+
+        // Update the existing Users and an unknown one
+        UsersDTO usersDTO = usersMapper.toDto(users.name(UPDATED_NAME).country(UPDATED_COUNTRY));
+        UsersDTO unknown = usersMapper.toDto(createEntity(em));
+        unknown.setId(Long.MAX_VALUE);
+        restUsersMockMvc.perform(put("/api/users/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(usersDTO, unknown))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].status").value("UPDATED"))
+            .andExpect(jsonPath("$.[1].status").value("REJECTED"));
+
+        // Validate the Users in the database
+        Users testUsers = usersRepository.findById(users.getId()).get();
+        assertThat(testUsers.getName()).isEqualTo(UPDATED_NAME);
+        assertThat(testUsers.getCountry()).isEqualTo(UPDATED_COUNTRY);
+        assertThat(usersRepository.findById(Long.MAX_VALUE)).isNotPresent();
+    }
+
+    @Test
+    @Transactional
+    public void createUsersInBulkWithEmptyList() throws Exception {
+        restUsersMockMvc.perform(post("/api/users/bulk")
+            .contentType(TestUtil.APPLICATION_JSON_UTF8)
+            .content("[]"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getAllUsers() throws Exception {
@@ -240,7 +479,7 @@ public class UsersResourceIntTest {
         usersRepository.saveAndFlush(users);
 
         // Get all the usersList
-        restUsersMockMvc.perform(get("/api/users?sort=id,desc"))
+        performAsync(get("/api/users?sort=id,desc"))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
             .andExpect(jsonPath("$.[*].id").value(hasItem(users.getId().intValue())))
@@ -258,7 +497,7 @@ public class UsersResourceIntTest {
         usersRepository.saveAndFlush(users);
 
         // Get the users
-        restUsersMockMvc.perform(get("/api/users/{id}", users.getId()))
+        performAsync(get("/api/users/{id}", users.getId()))
             .andExpect(status().isOk())
             .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
             .andExpect(jsonPath("$.id").value(users.getId().intValue()))
@@ -269,11 +508,361 @@ public class UsersResourceIntTest {
             .andExpect(jsonPath("$.country").value(DEFAULT_COUNTRY.toString()));
     }
 
+    @Test
+    @Transactional
+    public void getAllUsersByAgeIsEqualToSomething() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where age equals to DEFAULT_AGE
+        defaultUsersShouldBeFound("age.equals=" + DEFAULT_AGE);
+
+        // Get all the usersList where age equals to UPDATED_AGE
+        defaultUsersShouldNotBeFound("age.equals=" + UPDATED_AGE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByAgeIsInShouldWork() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where age in DEFAULT_AGE or UPDATED_AGE
+        defaultUsersShouldBeFound("age.in=" + DEFAULT_AGE + "," + UPDATED_AGE);
+
+        // Get all the usersList where age equals to UPDATED_AGE
+        defaultUsersShouldNotBeFound("age.in=" + UPDATED_AGE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByAgeIsNullOrNotNull() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where age is not null
+        defaultUsersShouldBeFound("age.specified=true");
+
+        // Get all the usersList where age is null
+        defaultUsersShouldNotBeFound("age.specified=false");
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByAgeIsGreaterThanOrEqualToSomething() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where age greater than or equals to DEFAULT_AGE
+        defaultUsersShouldBeFound("age.greaterOrEqualThan=" + DEFAULT_AGE);
+
+        // Get all the usersList where age greater than or equals to UPDATED_AGE
+        defaultUsersShouldNotBeFound("age.greaterOrEqualThan=" + UPDATED_AGE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByAgeIsLessThanSomething() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where age less than or equals to DEFAULT_AGE
+        defaultUsersShouldNotBeFound("age.lessThan=" + DEFAULT_AGE);
+
+        // Get all the usersList where age less than or equals to UPDATED_AGE
+        defaultUsersShouldBeFound("age.lessThan=" + UPDATED_AGE);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByGenderIsEqualToSomething() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where gender equals to DEFAULT_GENDER
+        defaultUsersShouldBeFound("gender.equals=" + DEFAULT_GENDER);
+
+        // Get all the usersList where gender equals to UPDATED_GENDER
+        defaultUsersShouldNotBeFound("gender.equals=" + UPDATED_GENDER);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByGenderIsInShouldWork() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where gender in DEFAULT_GENDER or UPDATED_GENDER
+        defaultUsersShouldBeFound("gender.in=" + DEFAULT_GENDER + "," + UPDATED_GENDER);
+
+        // Get all the usersList where gender equals to UPDATED_GENDER
+        defaultUsersShouldNotBeFound("gender.in=" + UPDATED_GENDER);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByCountryIsEqualToSomething() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where country equals to DEFAULT_COUNTRY
+        defaultUsersShouldBeFound("country.equals=" + DEFAULT_COUNTRY);
+
+        // Get all the usersList where country equals to UPDATED_COUNTRY
+        defaultUsersShouldNotBeFound("country.equals=" + UPDATED_COUNTRY);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByCountryIsInShouldWork() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get all the usersList where country in DEFAULT_COUNTRY or UPDATED_COUNTRY
+        defaultUsersShouldBeFound("country.in=" + DEFAULT_COUNTRY + "," + UPDATED_COUNTRY);
+
+        // Get all the usersList where country equals to UPDATED_COUNTRY
+        defaultUsersShouldNotBeFound("country.in=" + UPDATED_COUNTRY);
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersIsPaginated() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get the first page of the usersList
+        performAsync(get("/api/users?sort=id,desc&page=0&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", String.valueOf(usersRepository.count())))
+            .andExpect(header().exists(HttpHeaders.LINK))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByKeyset() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+        Users other = createEntity(em).country(UPDATED_COUNTRY).email(UPDATED_EMAIL);
+        usersRepository.saveAndFlush(other);
+
+        // Get the first page ordered by country, which must link to the next one without counting
+        MvcResult result = restUsersMockMvc.perform(get("/api/users/seek?key=country&size=1"))
+            .andExpect(status().isOk())
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andReturn();
+        String link = result.getResponse().getHeader(HttpHeaders.LINK);
+        assertThat(link).contains("rel=\"next\"");
+        String cursor = link.substring(link.indexOf("cursor=") + "cursor=".length(), link.indexOf("&size="));
+
+        // Follow the cursor up to the last page
+        restUsersMockMvc.perform(get("/api/users/seek?size=" + usersRepository.count() + "&cursor=" + cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(other.getId().intValue())))
+            .andExpect(header().string(HttpHeaders.LINK, not(containsString("rel=\"next\""))));
+    }
+
+    @Test
+    @Transactional
+    public void findUsersAfterCountryAndId() {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+        Users sameCountry = usersRepository.saveAndFlush(createEntity(em).email("same-country@example.com"));
+        Users otherCountry = usersRepository.saveAndFlush(createEntity(em).country(UPDATED_COUNTRY).email(UPDATED_EMAIL));
+
+        // Seek from the first user: the next users of the same country, then those of the following countries
+        List<Users> after = usersRepository.findAfterCountryAndId(DEFAULT_COUNTRY, users.getId(),
+            PageRequest.of(0, (int) usersRepository.count())).getContent();
+
+        assertThat(after).extracting(Users::getId)
+            .contains(sameCountry.getId(), otherCountry.getId())
+            .doesNotContain(users.getId());
+        assertThat(after.indexOf(sameCountry)).isLessThan(after.indexOf(otherCountry));
+    }
+
+    @Test
+    @Transactional
+    public void getAllUsersByKeysetWithInvalidCursor() throws Exception {
+        restUsersMockMvc.perform(get("/api/users/seek?cursor=not-a-cursor"))
+            .andExpect(status().isBadRequest());
+        restUsersMockMvc.perform(get("/api/users/seek?key=name"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    public void exportUsers() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+        usersRepository.saveAndFlush(createEntity(em).name(UPDATED_NAME).email(UPDATED_EMAIL));
+
+        // Export all the users, one JSON document per line
+        String content = performAsync(get("/api/users/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"))
+            .andReturn().getResponse().getContentAsString();
+        String[] lines = content.split("\n");
+        assertThat(lines).hasSize((int) usersRepository.count());
+        UsersDTO last = objectMapper.readValue(lines[lines.length - 1], UsersDTO.class);
+        assertThat(last.getName()).isEqualTo(UPDATED_NAME);
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is returned
+     */
+    private void defaultUsersShouldBeFound(String filter) throws Exception {
+        performAsync(get("/api/users?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(users.getId().intValue())))
+            .andExpect(jsonPath("$.[*].name").value(hasItem(DEFAULT_NAME)))
+            .andExpect(jsonPath("$.[*].age").value(hasItem(DEFAULT_AGE)))
+            .andExpect(jsonPath("$.[*].gender").value(hasItem(DEFAULT_GENDER.toString())))
+            .andExpect(jsonPath("$.[*].email").value(hasItem(DEFAULT_EMAIL)))
+            .andExpect(jsonPath("$.[*].country").value(hasItem(DEFAULT_COUNTRY.toString())));
+
+        // Check, that the count call also returns 1
+        restUsersMockMvc.perform(get("/api/users/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(content().string("1"));
+    }
+
+    /**
+     * Executes the search, and checks that the default entity is not returned
+     */
+    private void defaultUsersShouldNotBeFound(String filter) throws Exception {
+        performAsync(get("/api/users?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$").isArray())
+            .andExpect(jsonPath("$").isEmpty());
+
+        // Check, that the count call also returns 0
+        restUsersMockMvc.perform(get("/api/users/count?sort=id,desc&" + filter))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(content().string("0"));
+    }
+
+
     @Test
     @Transactional
     public void getNonExistingUsers() throws Exception {
         // Get the users
-        restUsersMockMvc.perform(get("/api/users/{id}", Long.MAX_VALUE))
+        performAsync(get("/api/users/{id}", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void getUsersWhenTheExecutorIsSaturated() throws Exception {
+        Executor saturatedExecutor = task -> {
+            throw new TaskRejectedException("The users executor is saturated");
+        };
+        MockMvc saturatedMockMvc = createMockMvc(new UsersAsyncService(usersService, usersQueryService,
+            saturatedExecutor, new SyncTaskExecutor()));
+
+        saturatedMockMvc.perform(get("/api/users/{id}", Long.MAX_VALUE))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    public void exportUsersOnTheExportExecutor() throws Exception {
+        // Committed, as the export reads the users from another thread
+        Users savedUsers = usersRepository.saveAndFlush(users);
+        ThreadPoolTaskExecutor exportExecutor = createExecutor(1, 0);
+        try {
+            MockMvc exportMockMvc = createMockMvc(new UsersAsyncService(usersService, usersQueryService,
+                new SyncTaskExecutor(), exportExecutor));
+
+            MvcResult result = exportMockMvc.perform(get("/api/users/export")).andReturn();
+            String content = exportMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+            assertThat(content.split("\n")).hasSize((int) usersRepository.count());
+            assertThat(content).contains("\"email\":\"" + DEFAULT_EMAIL + "\"");
+        } finally {
+            exportExecutor.shutdown();
+            usersRepository.delete(savedUsers);
+        }
+    }
+
+    @Test
+    public void exportUsersWhenTheExportExecutorIsBusy() throws Exception {
+        ThreadPoolTaskExecutor usersExecutor = createExecutor(2, 10);
+        ThreadPoolTaskExecutor exportExecutor = createExecutor(1, 0);
+        CountDownLatch slowExportDone = new CountDownLatch(1);
+        try {
+            // A slow export holds the only export thread
+            exportExecutor.execute(() -> {
+                try {
+                    slowExportDone.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            MockMvc busyMockMvc = createMockMvc(new UsersAsyncService(usersService, usersQueryService,
+                usersExecutor, exportExecutor));
+
+            busyMockMvc.perform(get("/api/users/export"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_SERVICE_UNAVAILABLE));
+
+            // The other endpoints are still served, by their own executor
+            MvcResult result = busyMockMvc.perform(get("/api/users/{id}", Long.MAX_VALUE)).andReturn();
+            busyMockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+        } finally {
+            slowExportDone.countDown();
+            usersExecutor.shutdown();
+            exportExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @Transactional
+    public void getUsersByEmail() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+
+        // Get the users by its email, in another case
+        performAsync(get("/api/users/by-email").param("email", DEFAULT_EMAIL.toLowerCase()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.id").value(users.getId().intValue()))
+            .andExpect(jsonPath("$.email").value(DEFAULT_EMAIL));
+    }
+
+    @Test
+    @Transactional
+    public void getUsersStats() throws Exception {
+        // Initialize the database
+        usersRepository.saveAndFlush(users);
+        usersRepository.saveAndFlush(createEntity(em).email(UPDATED_EMAIL).gender(UPDATED_GENDER).age(15));
+
+        // Get the aggregates
+        restUsersMockMvc.perform(get("/api/users/stats"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_UTF8_VALUE))
+            .andExpect(jsonPath("$.total").value(2))
+            .andExpect(jsonPath("$.countries." + DEFAULT_COUNTRY).value(2))
+            .andExpect(jsonPath("$.genders." + DEFAULT_GENDER).value(1))
+            .andExpect(jsonPath("$.genders." + UPDATED_GENDER).value(1))
+            .andExpect(jsonPath("$.countriesAndGenders." + DEFAULT_COUNTRY + "." + UPDATED_GENDER).value(1))
+            .andExpect(jsonPath("$.ageBucketWidth").value(10))
+            .andExpect(jsonPath("$.ages.0").value(1))
+            .andExpect(jsonPath("$.ages.10").value(1));
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingUsersByEmail() throws Exception {
+        // Get the users
+        performAsync(get("/api/users/by-email").param("email", UPDATED_EMAIL))
             .andExpect(status().isNotFound());
     }
 
@@ -297,7 +886,7 @@ public class UsersResourceIntTest {
             .country(UPDATED_COUNTRY);
         UsersDTO usersDTO = usersMapper.toDto(updatedUsers);
 
-        restUsersMockMvc.perform(put("/api/users")
+        performAsync(put("/api/users")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
             .andExpect(status().isOk());
@@ -322,7 +911,7 @@ public class UsersResourceIntTest {
         UsersDTO usersDTO = usersMapper.toDto(users);
 
         // If the entity doesn't have an ID, it will throw BadRequestAlertException
-        restUsersMockMvc.perform(put("/api/users")
+        performAsync(put("/api/users")
             .contentType(TestUtil.APPLICATION_JSON_UTF8)
             .content(TestUtil.convertObjectToJsonBytes(usersDTO)))
             .andExpect(status().isBadRequest());
@@ -341,7 +930,7 @@ public class UsersResourceIntTest {
         int databaseSizeBeforeDelete = usersRepository.findAll().size();
 
         // Get the users
-        restUsersMockMvc.perform(delete("/api/users/{id}", users.getId())
+        performAsync(delete("/api/users/{id}", users.getId())
             .accept(TestUtil.APPLICATION_JSON_UTF8))
             .andExpect(status().isOk());
 
@@ -2,6 +2,7 @@ package com.nola.raj.user.web.rest.util;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
@@ -41,4 +42,20 @@ public class PaginationUtilUnitTest {
         assertTrue(Long.valueOf(xTotalCountHeaders.get(0)).equals(400L));
     }
 
+    @Test
+    public void generateKeysetPaginationHttpHeadersTest() {
+        String baseUrl = "/api/_search/example?key=id";
+        HttpHeaders headers = PaginationUtil.generateKeysetPaginationHttpHeaders("MDo0Mg", 50, baseUrl);
+        List<String> strHeaders = headers.get(HttpHeaders.LINK);
+        assertNotNull(strHeaders);
+        assertTrue(strHeaders.size() == 1);
+        String expectedData = "</api/_search/example?key=id&cursor=MDo0Mg&size=50>; rel=\"next\","
+                + "</api/_search/example?key=id&size=50>; rel=\"first\"";
+        assertEquals(expectedData, strHeaders.get(0));
+        assertNull(headers.get("X-Total-Count"));
+
+        headers = PaginationUtil.generateKeysetPaginationHttpHeaders(null, 50, baseUrl);
+        assertEquals("</api/_search/example?key=id&size=50>; rel=\"first\"", headers.getFirst(HttpHeaders.LINK));
+    }
+
 }